@@ -22,6 +22,7 @@ import me.clickism.clickeventlib.location.WorldManager;
 import me.clickism.clickeventlib.phase.EventBar;
 import me.clickism.clickeventlib.phase.PhaseManager;
 import me.clickism.clickeventlib.serialization.AutoSaver;
+import me.clickism.clickeventlib.serialization.DataManager;
 import me.clickism.clickeventlib.statistic.StatisticManager;
 import me.clickism.clickeventlib.statistic.Statistics;
 import me.clickism.clickeventlib.statistic.UUIDManager;
@@ -103,6 +104,7 @@ public final class ClickEventLib extends JavaPlugin {
     @Override
     public void onDisable() {
         LocationDisplayer.removeGlobalDisplays();
+        DataManager.flushPendingWrites();
         getLogger().info("ClickEventLib deactivated.");
     }
 
@@ -0,0 +1,38 @@
+package me.clickism.clickeventlib.commands.leaderboard;
+
+import me.clickism.clickeventlib.leaderboard.Leaderboard;
+import me.clickism.clickeventlib.leaderboard.LeaderboardManager;
+import me.clickism.clickeventlib.leaderboard.ViewerTextSender;
+import me.clickism.subcommandapi.argument.IntegerArgument;
+import me.clickism.subcommandapi.argument.SelectionArgument;
+import me.clickism.subcommandapi.command.*;
+import org.bukkit.entity.Player;
+
+class LeaderboardPageSubcommand extends PlayerOnlySubcommand {
+    private static final IntegerArgument PAGE_ARGUMENT = new IntegerArgument("page", true);
+
+    private final SelectionArgument<Leaderboard> leaderboardArgument;
+
+    public LeaderboardPageSubcommand(LeaderboardManager leaderboardManager) {
+        super("page", false);
+        this.leaderboardArgument = new SelectionArgument<>("leaderboard", true, leaderboardManager.getLeaderboards());
+        addArgument(leaderboardArgument);
+        addArgument(PAGE_ARGUMENT);
+    }
+
+    @Override
+    protected CommandResult execute(CommandStack trace, Player player, ArgumentHandler argHandler) throws CommandException {
+        Leaderboard leaderboard = argHandler.get(leaderboardArgument);
+        int page = argHandler.get(PAGE_ARGUMENT);
+        if (page < 1) {
+            return CommandResult.failure("Page must be at least &l1&c.");
+        }
+        ViewerTextSender sender = leaderboard.getViewerTextSender();
+        if (sender == null || !sender.showsPages()) {
+            return CommandResult.failure("Leaderboard &l" + leaderboard.getName() + "&c has no pages.");
+        }
+        // Pages are numbered from 1 for players
+        leaderboard.setPage(player.getUniqueId(), page - 1);
+        return CommandResult.success("Showing page &l" + page + "&a of leaderboard &l" + leaderboard.getName() + "&a.");
+    }
+}
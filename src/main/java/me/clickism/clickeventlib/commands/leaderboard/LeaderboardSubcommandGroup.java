@@ -18,5 +18,6 @@ public class LeaderboardSubcommandGroup extends SubcommandGroup {
         addSubcommand(new LeaderboardTeleportSubcommand(leaderboardManager));
         addSubcommand(new LeaderboardRemoveSubcommand(leaderboardManager));
         addSubcommand(new LeaderboardUpdateSubcommand(leaderboardManager));
+        addSubcommand(new LeaderboardPageSubcommand(leaderboardManager));
     }
 }
@@ -1,5 +1,6 @@
 package me.clickism.clickeventlib.commands.leaderboard;
 
+import me.clickism.clickeventlib.leaderboard.Leaderboard;
 import me.clickism.clickeventlib.leaderboard.LeaderboardManager;
 import me.clickism.subcommandapi.command.*;
 import org.bukkit.command.CommandSender;
@@ -18,6 +19,7 @@ class LeaderboardUpdateSubcommand extends Subcommand {
         if (leaderboardManager.getLeaderboards().isEmpty()) {
             return CommandResult.failure("No leaderboards to update.");
         }
+        leaderboardManager.getLeaderboards().forEach(Leaderboard::invalidate);
         leaderboardManager.updateLeaderboards();
         return CommandResult.success("Leaderboards updated.");
     }
@@ -31,6 +31,8 @@ class StatisticGetSubcommand extends Subcommand {
             Object value = statistic.getOrNull(player.getUniqueId());
             if (value == null) return;
             sb.append("\n&a- ").append(player.getName()).append(": &f").append(value);
+            if (!statistic.isRanked()) return;
+            sb.append(" &7(#").append(statistic.getRank(player.getUniqueId())).append(")");
         });
         return CommandResult.success(sb.toString());
     }
@@ -11,7 +11,6 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 class TriggerBoxRemoveInsideSubcommand extends PlayerOnlySubcommand {
@@ -37,29 +36,26 @@ class TriggerBoxRemoveInsideSubcommand extends PlayerOnlySubcommand {
         }
         Trigger filter = argHandler.getOrNull(triggerArgument);
         boolean all = argHandler.hasFlag(ALL_FLAG);
-        Collection<TriggerBox> removed = removeTriggersInside(triggerBoxes, location, filter, all);
-        triggerManager.save();
+        Collection<TriggerBox> removed = findTriggersInside(triggerBoxes, location, filter, all);
+        triggerManager.unregisterTriggerBoxes(removed);
         if (removed.isEmpty()) {
             return CommandResult.failure("No triggers at your location.");
         }
         return CommandResult.success("Removed triggers:" + FormatUtils.formatTriggerBoxes(removed));
     }
 
-    private Collection<TriggerBox> removeTriggersInside(Collection<TriggerBox> triggerBoxes, Location location,
-                                                        Trigger filter, boolean all) {
-        List<TriggerBox> removed = new ArrayList<>();
-        Iterator<TriggerBox> iterator = triggerBoxes.iterator();
-        while (iterator.hasNext()) {
-            TriggerBox triggerBox = iterator.next();
+    private Collection<TriggerBox> findTriggersInside(Collection<TriggerBox> triggerBoxes, Location location,
+                                                      Trigger filter, boolean all) {
+        List<TriggerBox> found = new ArrayList<>();
+        for (TriggerBox triggerBox : triggerBoxes) {
             if (filter != null && !triggerBox.getTrigger().equals(filter)) {
                 continue;
             }
             if (triggerBox.isInside(location)) {
-                iterator.remove();
-                removed.add(triggerBox);
+                found.add(triggerBox);
                 if (!all) break;
             }
         }
-        return removed;
+        return found;
     }
 }
@@ -12,7 +12,6 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 class TriggerBoxRemoveRadiusSubcommand extends PlayerOnlySubcommand {
@@ -40,8 +39,8 @@ class TriggerBoxRemoveRadiusSubcommand extends PlayerOnlySubcommand {
         }
         Trigger filter = argHandler.getOrNull(triggerArgument);
         double radius = argHandler.get(RADIUS_ARGUMENT);
-        List<TriggerBox> removed = removeTriggersWithinRadius(triggerBoxes, location, radius, filter, argHandler.hasFlag(ALL_FLAG));
-        triggerManager.save();
+        List<TriggerBox> removed = findTriggersWithinRadius(triggerBoxes, location, radius, filter, argHandler.hasFlag(ALL_FLAG));
+        triggerManager.unregisterTriggerBoxes(removed);
         if (removed.isEmpty()) {
             return CommandResult.failure("No triggers within radius &l" + radius + ".");
         } else {
@@ -50,23 +49,17 @@ class TriggerBoxRemoveRadiusSubcommand extends PlayerOnlySubcommand {
         }
     }
 
-    private List<TriggerBox> removeTriggersWithinRadius(Collection<TriggerBox> triggerBoxes, Location location, double radius, Trigger filter, boolean removeAll) {
-        Iterator<TriggerBox> iterator = triggerBoxes.iterator();
-        List<TriggerBox> removed = new ArrayList<>();
-        while (iterator.hasNext()) {
-            TriggerBox triggerBox = iterator.next();
+    private List<TriggerBox> findTriggersWithinRadius(Collection<TriggerBox> triggerBoxes, Location location, double radius, Trigger filter, boolean removeAll) {
+        List<TriggerBox> found = new ArrayList<>();
+        for (TriggerBox triggerBox : triggerBoxes) {
             if (filter != null && !triggerBox.getTrigger().equals(filter)) {
                 continue;
             }
             if (triggerBox.distanceTo(location) <= radius) {
-                iterator.remove();
-                if (!removeAll) {
-                    removed.add(triggerBox);
-                    break;
-                }
-                removed.add(triggerBox);
+                found.add(triggerBox);
+                if (!removeAll) break;
             }
         }
-        return removed;
+        return found;
     }
 }
@@ -0,0 +1,24 @@
+package me.clickism.clickeventlib.leaderboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Provides leaderboard entries that can be computed on another thread.
+ */
+public interface AsyncLeaderboardEntryProvider extends LeaderboardEntryProvider {
+    /**
+     * Take a snapshot of the values on the main thread,
+     * and get a task that ranks and formats the first entries of the snapshot.
+     * The task is run on another thread, so it must only access the snapshot.
+     *
+     * @param limit maximum number of entries
+     * @return task that computes the first leaderboard entries
+     */
+    @NotNull
+    Supplier<List<Map.Entry<UUID, String>>> snapshotEntries(int limit);
+}
@@ -1,5 +1,6 @@
 package me.clickism.clickeventlib.leaderboard;
 
+import me.clickism.clickeventlib.ClickEventLib;
 import me.clickism.clickeventlib.location.SafeLocation;
 import me.clickism.clickeventlib.statistic.UUIDManager;
 import me.clickism.clickeventlib.util.DisplayHandler;
@@ -7,17 +8,26 @@ import me.clickism.subcommandapi.util.Named;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.entity.Display;
-import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
 import org.bukkit.entity.TextDisplay;
 import org.bukkit.util.Transformation;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3f;
 
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * Represents a leaderboard that displays entries from a leaderboard entry provider.
+ * <p>
+ * The leaderboard remembers what it last rendered, so updates skip the text display entirely
+ * if neither the provider version nor the player names changed,
+ * and only set the text if the displayed entries changed.
+ * <p>
+ * With a {@link ViewerTextSender}, every viewer can see their own page and rank on the same text display.
  */
 public class Leaderboard extends DisplayHandler implements Named {
     /**
@@ -28,6 +38,10 @@ public class Leaderboard extends DisplayHandler implements Named {
      * The default scale of the leaderboard text.
      */
     public static final float DEFAULT_SCALE = 1f;
+    /**
+     * The default interval in ticks between refreshes of the leaderboard.
+     */
+    public static final int DEFAULT_REFRESH_INTERVAL = 100;
 
     private final LeaderboardEntryProvider provider;
 
@@ -39,9 +53,32 @@ public class Leaderboard extends DisplayHandler implements Named {
     private final ChatColor color;
     private final int entryCount;
     private final float scale;
+    private int refreshInterval = DEFAULT_REFRESH_INTERVAL;
 
     private UUID textUUID;
 
+    private boolean propertiesApplied = false;
+    @Nullable
+    private List<Map.Entry<UUID, String>> renderedEntries;
+    private long renderedVersion = -1;
+    private long renderedNameVersion = -1;
+    private boolean computing = false;
+
+    private final List<Row> rows = new ArrayList<>();
+    private long rowsNameVersion = -1;
+    @Nullable
+    private String renderedText;
+
+    @Nullable
+    private ViewerTextSender viewerTextSender;
+    private final Map<UUID, Integer> viewerPages = new HashMap<>();
+    private final Map<UUID, ViewerState> viewerStates = new HashMap<>();
+    private final Map<Integer, String> pageTexts = new HashMap<>();
+    private long pageTextsVersion = -1;
+    @Nullable
+    private Standings standings;
+    private long nextResendTick = 0;
+
     /**
      * Creates a new leaderboard.
      *
@@ -94,23 +131,314 @@ public class Leaderboard extends DisplayHandler implements Named {
 
     /**
      * Updates the leaderboard.
+     * Does nothing if the rendered entries didn't change since the last update.
      */
     public void update() {
-        Location location = safeLocation.getLocation();
-        if (location == null) return; // World not loaded
-        try {
-            this.textUUID = spawnDisplayIfNotExists(textUUID, location, EntityType.TEXT_DISPLAY);
-        } catch (IllegalArgumentException ignored) {
+        TextDisplay display = getOrSpawnDisplay();
+        if (display == null) return;
+        long version = provider.getVersion();
+        long nameVersion = UUIDManager.getVersion();
+        if (needsStandings()) {
+            if (!isRendered(version, nameVersion) || standings == null) {
+                Standings current = Standings.of(provider.getLeaderboardEntries());
+                render(display, new Snapshot(current.getTop(entryCount), current), version, nameVersion);
+            }
+        } else if (!isRendered(version, nameVersion)) {
+            render(display, new Snapshot(provider.getLeaderboardEntries(entryCount), null), version, nameVersion);
+        }
+        updateViewers(display, version, false);
+    }
+
+    /**
+     * Updates the leaderboard, computing the entries on another thread if the provider is an
+     * {@link AsyncLeaderboardEntryProvider}, and setting the text on the main thread.
+     * Must be called on the main thread.
+     * Does nothing if the entries of the previous update are still being computed.
+     *
+     * @param executor           executor to compute the entries on
+     * @param mainThreadExecutor executor that runs tasks on the main thread
+     */
+    public void updateAsync(Executor executor, Executor mainThreadExecutor) {
+        if (!(provider instanceof AsyncLeaderboardEntryProvider asyncProvider)) {
+            update();
             return;
         }
-        TextDisplay display = getTextDisplay(textUUID);
+        if (computing) return;
+        TextDisplay display = getOrSpawnDisplay();
         if (display == null) return;
-        display.setBillboard(Display.Billboard.FIXED);
-        display.setAlignment(TextDisplay.TextAlignment.CENTER);
+        long version = provider.getVersion();
+        long nameVersion = UUIDManager.getVersion();
+        boolean needsStandings = needsStandings();
+        if (isRendered(version, nameVersion) && (!needsStandings || standings != null)) {
+            updateViewers(display, version, false);
+            return;
+        }
+        Supplier<List<Map.Entry<UUID, String>>> task =
+                asyncProvider.snapshotEntries(needsStandings ? Integer.MAX_VALUE : entryCount);
+        computing = true;
+        try {
+            CompletableFuture.supplyAsync(() -> {
+                List<Map.Entry<UUID, String>> entries = task.get();
+                if (!needsStandings) return new Snapshot(entries, null);
+                // Pages and personal rows are looked up in the standings, so all entries are ranked here
+                Standings current = Standings.of(entries);
+                return new Snapshot(current.getTop(entryCount), current);
+            }, executor).whenCompleteAsync((snapshot, throwable) -> {
+                computing = false;
+                if (throwable != null) {
+                    ClickEventLib.LOGGER.severe("Leaderboard " + name + " couldn't be computed: "
+                                                + throwable.getMessage());
+                    return;
+                }
+                // The entity may have been removed while the entries were computed
+                TextDisplay current = textUUID != null ? getTextDisplay(textUUID) : null;
+                if (current == null) return;
+                render(current, snapshot, version, nameVersion);
+                updateViewers(current, version, false);
+            }, mainThreadExecutor);
+        } catch (RejectedExecutionException exception) {
+            // Nothing was scheduled, so the next update has to try again
+            computing = false;
+            ClickEventLib.LOGGER.severe("Leaderboard " + name + " couldn't be scheduled: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Gets the text display of the leaderboard, spawning it if it doesn't exist.
+     *
+     * @return text display, or null if the world is not loaded
+     */
+    @Nullable
+    private TextDisplay getOrSpawnDisplay() {
+        Location location = safeLocation.getLocation();
+        if (location == null) return null; // World not loaded
+        TextDisplay display = textUUID != null ? getTextDisplay(textUUID) : null;
+        if (display == null) {
+            try {
+                display = spawnTextDisplay(location);
+            } catch (IllegalArgumentException ignored) {
+                return null;
+            }
+            textUUID = display.getUniqueId();
+            invalidate();
+        }
+        if (!propertiesApplied) {
+            applyProperties(display);
+            propertiesApplied = true;
+        }
+        return display;
+    }
+
+    private boolean isRendered(long version, long nameVersion) {
+        return version >= 0 && version == renderedVersion && nameVersion == renderedNameVersion;
+    }
+
+    private boolean needsStandings() {
+        return viewerTextSender != null && !provider.isRanked();
+    }
+
+    /**
+     * Sets the text of the text display to the entries of the snapshot, if they changed since they were last rendered.
+     *
+     * @param display     text display
+     * @param snapshot    entries to display and standings of the provider
+     * @param version     version of the provider the entries were read at
+     * @param nameVersion version of the names the entries were read at
+     */
+    private void render(TextDisplay display, Snapshot snapshot, long version, long nameVersion) {
+        renderedVersion = version;
+        standings = snapshot.standings();
+        List<Map.Entry<UUID, String>> entries = snapshot.entries();
+        if (entries.equals(renderedEntries) && nameVersion == renderedNameVersion) return;
+        renderedEntries = entries;
+        renderedNameVersion = nameVersion;
+        String text = getText(entries);
+        renderedText = text;
+        if (!text.equals(display.getText())) {
+            display.setText(text);
+        }
+    }
+
+    /**
+     * Sends the viewer-specific text to the viewers near the leaderboard, if a viewer text sender is set.
+     * The text is only computed again for a viewer if the provider version or the page of the viewer changed.
+     *
+     * @param display text display
+     * @param version version of the provider
+     * @param resend  whether to send the text again even if it didn't change
+     */
+    private void updateViewers(TextDisplay display, long version, boolean resend) {
+        if (viewerTextSender == null) return;
+        if (version < 0 || version != pageTextsVersion) {
+            pageTexts.clear();
+            pageTextsVersion = version;
+        }
+        Location location = display.getLocation();
+        double maxDistanceSquared = LeaderboardRefresher.VIEW_DISTANCE * LeaderboardRefresher.VIEW_DISTANCE;
+        Set<UUID> viewers = new HashSet<>();
+        for (Player viewer : display.getWorld().getPlayers()) {
+            if (viewer.getLocation().distanceSquared(location) > maxDistanceSquared) continue;
+            UUID uuid = viewer.getUniqueId();
+            viewers.add(uuid);
+            int page = viewerTextSender.showsPages() ? getPage(uuid) : 0;
+            ViewerState state = viewerStates.get(uuid);
+            boolean changed = state == null || version < 0 || state.version() != version || state.page() != page;
+            if (changed) {
+                state = new ViewerState(page, version, getPageText(page), getPersonalRow(uuid));
+                viewerStates.put(uuid, state);
+            } else if (!resend) {
+                continue;
+            }
+            viewerTextSender.send(viewer, display, state.text(), state.personalRow());
+        }
+        // Viewers that come back are sent their text again
+        viewerStates.keySet().retainAll(viewers);
+    }
+
+    /**
+     * Sends the viewer-specific text again if the sender has a resend interval and it passed,
+     * i.E. for text that fades like the action bar.
+     * Only sends the text that was computed by the last update.
+     *
+     * @param tick current tick of the refresher
+     */
+    void resendViewers(long tick) {
+        if (viewerTextSender == null) return;
+        int interval = viewerTextSender.getResendInterval();
+        if (interval <= 0 || tick < nextResendTick) return;
+        nextResendTick = tick + interval;
+        if (renderedText == null || (needsStandings() && standings == null)) return;
+        TextDisplay display = textUUID != null ? getTextDisplay(textUUID) : null;
+        if (display == null) return;
+        updateViewers(display, renderedVersion, true);
+    }
+
+    /**
+     * Gets the shared text of the given page, the first page is the text of the text display.
+     *
+     * @param page page, starting from 0
+     * @return text of the page
+     */
+    private String getPageText(int page) {
+        if (page == 0) return renderedText != null ? renderedText : title;
+        return pageTexts.computeIfAbsent(page, key -> {
+            int fromRank = key * entryCount + 1;
+            int toRank = fromRank + entryCount - 1;
+            List<Map.Entry<UUID, String>> entries = standings != null
+                    ? standings.getRange(fromRank, toRank)
+                    : provider.getRange(fromRank, toRank);
+            StringBuilder sb = new StringBuilder(title);
+            entries.forEach(entry -> sb.append("\n").append(renderRow(entry.getKey(), entry.getValue()).text()));
+            return sb.toString();
+        });
+    }
+
+    /**
+     * Gets the row with the rank and value of the given viewer.
+     * The rank is looked up in the standings, or in the index of a ranked provider.
+     *
+     * @param uuid UUID of the viewer
+     * @return personal row
+     */
+    private String getPersonalRow(UUID uuid) {
+        int rank;
+        List<Map.Entry<UUID, String>> entries;
+        if (standings != null) {
+            rank = standings.getRank(uuid);
+            entries = standings.getRange(rank, rank);
+        } else {
+            rank = provider.getRank(uuid);
+            entries = rank > 0 ? provider.getRange(rank, rank) : List.of();
+        }
+        if (rank < 0 || entries.isEmpty()) {
+            return color + "You: " + ChatColor.WHITE + "-";
+        }
+        return color + "You: #" + rank + " " + ChatColor.WHITE + entries.get(0).getValue();
+    }
+
+    /**
+     * Sets the sender of the viewer-specific text.
+     * If a sender is set, every viewer near the leaderboard is sent the page they are on
+     * and a row with their own rank, computed once per viewer and provider version.
+     * For providers that aren't ranked, all entries are ranked once per version to look up the pages and ranks.
+     *
+     * @param viewerTextSender sender, or null to only show the shared text
+     */
+    public void setViewerTextSender(@Nullable ViewerTextSender viewerTextSender) {
+        this.viewerTextSender = viewerTextSender;
+        viewerStates.clear();
+        pageTexts.clear();
+        standings = null;
+    }
+
+    /**
+     * Gets the sender of the viewer-specific text.
+     *
+     * @return sender, or null if only the shared text is shown
+     */
+    @Nullable
+    public ViewerTextSender getViewerTextSender() {
+        return viewerTextSender;
+    }
+
+    /**
+     * Sets the page the given viewer is on, shown from the next refresh.
+     * Pages other than the first are only shown by a viewer text sender that can set the text per viewer.
+     *
+     * @param viewer UUID of the viewer
+     * @param page   page, starting from 0
+     * @throws IllegalArgumentException if the page is negative
+     */
+    public void setPage(UUID viewer, int page) throws IllegalArgumentException {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (page == 0) {
+            viewerPages.remove(viewer);
+        } else {
+            viewerPages.put(viewer, page);
+        }
+    }
+
+    /**
+     * Gets the page the given viewer is on.
+     *
+     * @param viewer UUID of the viewer
+     * @return page, starting from 0
+     */
+    public int getPage(UUID viewer) {
+        return viewerPages.getOrDefault(viewer, 0);
+    }
+
+    /**
+     * Forces the next update to render the leaderboard again.
+     */
+    public void invalidate() {
+        propertiesApplied = false;
+        renderedEntries = null;
+        renderedVersion = -1;
+        renderedNameVersion = -1;
+        viewerStates.clear();
+        pageTexts.clear();
+        standings = null;
+    }
+
+    /**
+     * Applies the billboard, alignment and scale to the text display, only setting the properties that differ.
+     *
+     * @param display text display
+     */
+    private void applyProperties(TextDisplay display) {
+        if (display.getBillboard() != Display.Billboard.FIXED) {
+            display.setBillboard(Display.Billboard.FIXED);
+        }
+        if (display.getAlignment() != TextDisplay.TextAlignment.CENTER) {
+            display.setAlignment(TextDisplay.TextAlignment.CENTER);
+        }
         Transformation transformation = display.getTransformation();
-        display.setTransformation(applyScale(transformation, scale));
-        String text = getText();
-        display.setText(text);
+        if (!transformation.getScale().equals(new Vector3f(scale, scale, scale))) {
+            display.setTransformation(applyScale(transformation, scale));
+        }
     }
 
     /**
@@ -138,25 +466,46 @@ public class Leaderboard extends DisplayHandler implements Named {
 
     /**
      * Gets the text to display on the leaderboard.
+     * Rows are only rendered again if their entry or the name of their player changed.
      *
+     * @param entries entries to display
      * @return text
      */
-    private String getText() {
+    private String getText(List<Map.Entry<UUID, String>> entries) {
+        long nameVersion = UUIDManager.getVersion();
+        boolean namesChanged = nameVersion < 0 || nameVersion != rowsNameVersion;
+        rowsNameVersion = nameVersion;
         StringBuilder sb = new StringBuilder(title);
-        List<Map.Entry<UUID, String>> entries = provider.getLeaderboardEntries();
-        int size = Math.min(entries.size(), entryCount);
-        entries.subList(0, size).forEach(entry -> {
-            UUID uuid = entry.getKey();
-            String name = UUIDManager.getName(uuid);
-            if (name == null) {
-                name = "Unknown";
+        for (int i = 0; i < entries.size(); i++) {
+            Map.Entry<UUID, String> entry = entries.get(i);
+            Row row = i < rows.size() ? rows.get(i) : null;
+            if (row == null || !row.matches(entry, namesChanged)) {
+                row = renderRow(entry.getKey(), entry.getValue());
+                if (i < rows.size()) {
+                    rows.set(i, row);
+                } else {
+                    rows.add(row);
+                }
             }
-            String value = entry.getValue();
-            sb.append("\n").append(color).append(name).append(": ").append(ChatColor.WHITE).append(value);
-        });
+            sb.append("\n").append(row.text());
+        }
+        rows.subList(entries.size(), rows.size()).clear();
         return sb.toString();
     }
 
+    /**
+     * Renders the row of a leaderboard entry.
+     *
+     * @param uuid  UUID of the entry
+     * @param value formatted value of the entry
+     * @return rendered row
+     */
+    private Row renderRow(UUID uuid, String value) {
+        String name = UUIDManager.getName(uuid);
+        String text = color + (name != null ? name : "Unknown") + ": " + ChatColor.WHITE + value;
+        return new Row(uuid, value, name, text);
+    }
+
     /**
      * Gets the leaderboard entry provider.
      *
@@ -211,6 +560,28 @@ public class Leaderboard extends DisplayHandler implements Named {
         return scale;
     }
 
+    /**
+     * Gets the interval in ticks between refreshes of the leaderboard.
+     *
+     * @return refresh interval in ticks
+     */
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Sets the interval in ticks between refreshes of the leaderboard.
+     *
+     * @param refreshInterval refresh interval in ticks
+     * @throws IllegalArgumentException if the refresh interval is less than 1
+     */
+    public void setRefreshInterval(int refreshInterval) throws IllegalArgumentException {
+        if (refreshInterval < 1) {
+            throw new IllegalArgumentException("Refresh interval must be at least 1 tick");
+        }
+        this.refreshInterval = refreshInterval;
+    }
+
     /**
      * Gets the UUID of the text display entity.
      *
@@ -235,4 +606,71 @@ public class Leaderboard extends DisplayHandler implements Named {
     public static String getName(LeaderboardEntryProvider provider, int id) {
         return provider.getName() + "_" + id;
     }
+
+    /**
+     * Rendered row of the leaderboard, cached by position.
+     *
+     * @param uuid  UUID of the entry
+     * @param value formatted value of the entry
+     * @param name  name of the player when the row was rendered
+     * @param text  rendered text
+     */
+    private record Row(UUID uuid, String value, @Nullable String name, String text) {
+        private boolean matches(Map.Entry<UUID, String> entry, boolean namesChanged) {
+            if (!uuid.equals(entry.getKey()) || !value.equals(entry.getValue())) return false;
+            return !namesChanged || Objects.equals(name, UUIDManager.getName(uuid));
+        }
+    }
+
+    /**
+     * Entries to display, and the standings if pages and personal rows are looked up in them.
+     *
+     * @param entries   entries to display
+     * @param standings standings, or null if the provider is ranked or no viewer text sender is set
+     */
+    private record Snapshot(List<Map.Entry<UUID, String>> entries, @Nullable Standings standings) {
+    }
+
+    /**
+     * All ranked entries of a provider that isn't ranked,
+     * so pages and personal rows don't rank the entries again for every viewer.
+     *
+     * @param entries ranked entries
+     * @param ranks   ranks of the UUIDs, starting from 1
+     */
+    private record Standings(List<Map.Entry<UUID, String>> entries, Map<UUID, Integer> ranks) {
+        private static Standings of(List<Map.Entry<UUID, String>> entries) {
+            Map<UUID, Integer> ranks = new HashMap<>();
+            for (int i = 0; i < entries.size(); i++) {
+                ranks.put(entries.get(i).getKey(), i + 1);
+            }
+            return new Standings(entries, ranks);
+        }
+
+        private int getRank(UUID uuid) {
+            return ranks.getOrDefault(uuid, -1);
+        }
+
+        private List<Map.Entry<UUID, String>> getTop(int limit) {
+            return getRange(1, limit);
+        }
+
+        private List<Map.Entry<UUID, String>> getRange(int fromRank, int toRank) {
+            if (fromRank < 1) return List.of();
+            int from = Math.min(fromRank - 1, entries.size());
+            int to = Math.min(toRank, entries.size());
+            return entries.subList(from, Math.max(from, to));
+        }
+    }
+
+    /**
+     * Text that was last sent to a viewer.
+     *
+     * @param page        page of the viewer
+     * @param version     version of the provider
+     * @param text        text of the page
+     * @param personalRow row with the rank and value of the viewer
+     */
+    private record ViewerState(int page, long version, String text, String personalRow) {
+    }
 }
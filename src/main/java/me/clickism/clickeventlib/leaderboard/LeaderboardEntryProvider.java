@@ -18,4 +18,82 @@ public interface LeaderboardEntryProvider extends Named {
      */
     @NotNull
     List<Map.Entry<UUID, String>> getLeaderboardEntries();
+
+    /**
+     * Get the first leaderboard entries.
+     * Providers that keep their entries ordered should override this, so only the returned entries are created.
+     *
+     * @param limit maximum number of entries
+     * @return the first leaderboard entries
+     */
+    @NotNull
+    default List<Map.Entry<UUID, String>> getLeaderboardEntries(int limit) {
+        List<Map.Entry<UUID, String>> entries = getLeaderboardEntries();
+        return entries.subList(0, Math.min(entries.size(), limit));
+    }
+
+    /**
+     * Get the leaderboard entries from the given rank to the given rank, both inclusive.
+     * Ranks start from 1.
+     *
+     * @param fromRank first rank, inclusive
+     * @param toRank   last rank, inclusive
+     * @return the leaderboard entries in the range
+     */
+    @NotNull
+    default List<Map.Entry<UUID, String>> getRange(int fromRank, int toRank) {
+        List<Map.Entry<UUID, String>> entries = getLeaderboardEntries(toRank);
+        int from = Math.min(Math.max(fromRank - 1, 0), entries.size());
+        return entries.subList(from, Math.max(from, entries.size()));
+    }
+
+    /**
+     * Check whether ranks and ranges are looked up in an ordered index,
+     * instead of sorting all entries on every call.
+     *
+     * @return true if ranks and ranges are looked up in an index
+     */
+    default boolean isRanked() {
+        return false;
+    }
+
+    /**
+     * Get the rank of the given UUID on the leaderboard, starting from 1.
+     *
+     * @param uuid the UUID
+     * @return the rank, or -1 if the UUID is not on the leaderboard
+     */
+    default int getRank(UUID uuid) {
+        List<Map.Entry<UUID, String>> entries = getLeaderboardEntries();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getKey().equals(uuid)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the percentage of entries on the leaderboard that the given UUID is ranked at or above,
+     * i.E. 100 for the first entry.
+     *
+     * @param uuid the UUID
+     * @return the percentile from 0 to 100, or -1 if the UUID is not on the leaderboard
+     */
+    default double getPercentile(UUID uuid) {
+        int rank = getRank(uuid);
+        if (rank < 0) return -1;
+        int size = getLeaderboardEntries().size();
+        return (size - rank + 1) * 100.0 / size;
+    }
+
+    /**
+     * Get the version of the entries, which must change whenever the entries change,
+     * so consumers can skip work if nothing changed.
+     *
+     * @return the version, or -1 if the provider doesn't track changes and the entries must always be read again
+     */
+    default long getVersion() {
+        return -1;
+    }
 }
@@ -14,21 +14,24 @@ import org.bukkit.ChatColor;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * Manager for leaderboards.
+ * <p>
+ * Leaderboards are refreshed by a {@link LeaderboardRefresher}, independent of saving.
  */
 public class LeaderboardManager implements AutoSaved {
 
     private final JSONDataManager dataManager;
+    private final LeaderboardRefresher refresher;
 
     private final NamedCollection<LeaderboardEntryProvider> providers = new NamedCollection<>(new ArrayList<>());
     private final HashMap<LeaderboardEntryProvider, Integer> nextIdMap = new HashMap<>();
 
     private final NamedCollection<Leaderboard> leaderboards = new NamedCollection<>(new ArrayList<>());
+    // Saved leaderboards of providers that weren't registered yet, kept so saving doesn't drop them
+    private final Map<String, JsonElement> unregisteredProviderData = new LinkedHashMap<>();
 
     /**
      * Create a new leaderboard manager.
@@ -41,7 +44,28 @@ public class LeaderboardManager implements AutoSaved {
      */
     @AutoRegistered(type = {RegistryType.SAVE_ON_INTERVAL, RegistryType.SAVE_ON_DISABLE})
     public LeaderboardManager(JavaPlugin plugin, AutoSaver autoSaver, int saveInterval, String fileName) throws IOException {
+        this(plugin, autoSaver, saveInterval, fileName, LeaderboardRefresher.DEFAULT_MAX_UPDATES_PER_TICK);
+    }
+
+    /**
+     * Create a new leaderboard manager that updates at most the given number of leaderboards per tick.
+     *
+     * @param plugin            plugin
+     * @param autoSaver         auto saver
+     * @param saveInterval      save interval
+     * @param fileName          file name
+     * @param maxUpdatesPerTick maximum number of leaderboards updated per tick
+     * @throws IOException              if an error occurs while loading the leaderboards file
+     * @throws IllegalArgumentException if the maximum number of updates per tick is less than 1
+     */
+    @AutoRegistered(type = {RegistryType.SAVE_ON_INTERVAL, RegistryType.SAVE_ON_DISABLE})
+    public LeaderboardManager(JavaPlugin plugin, AutoSaver autoSaver, int saveInterval, String fileName,
+                              int maxUpdatesPerTick) throws IOException, IllegalArgumentException {
+        this.refresher = new LeaderboardRefresher(plugin, maxUpdatesPerTick);
         this.dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
+        dataManager.getRoot().entrySet().forEach(entry ->
+                unregisteredProviderData.put(entry.getKey(), entry.getValue()));
+        dataManager.releaseRoot();
         autoSaver.registerSaveOnInterval(this, saveInterval);
         autoSaver.registerSaveOnDisable(this);
     }
@@ -63,6 +87,7 @@ public class LeaderboardManager implements AutoSaved {
      */
     public void addLeaderboard(Leaderboard leaderboard) {
         leaderboards.add(leaderboard);
+        refresher.add(leaderboard);
         LeaderboardEntryProvider provider = leaderboard.getProvider();
         nextIdMap.put(provider, leaderboard.getId() + 1);
     }
@@ -74,6 +99,7 @@ public class LeaderboardManager implements AutoSaved {
      */
     public void removeLeaderboard(Leaderboard leaderboard) {
         leaderboards.remove(leaderboard);
+        refresher.remove(leaderboard);
         leaderboard.remove();
     }
 
@@ -103,6 +129,15 @@ public class LeaderboardManager implements AutoSaved {
         return providers;
     }
 
+    /**
+     * Get the refresher that updates the leaderboards.
+     *
+     * @return leaderboard refresher
+     */
+    public LeaderboardRefresher getRefresher() {
+        return refresher;
+    }
+
     /**
      * Get a collection of all registered leaderboards.
      *
@@ -114,15 +149,16 @@ public class LeaderboardManager implements AutoSaved {
 
     @Override
     public void save() {
-        updateLeaderboards();
         JsonObject json = new JsonObject();
+        // The data of unregistered providers is never modified, so it can be written as is
+        unregisteredProviderData.forEach(json::add);
         providers.forEach(provider -> json.add(provider.getName(), new JsonArray()));
         leaderboards.forEach(leaderboard -> {
             String name = leaderboard.getProvider().getName();
             JsonArray array = json.getAsJsonArray(name);
             array.add(toJson(leaderboard));
         });
-        dataManager.save(json);
+        dataManager.saveAsync(json);
     }
 
     private JsonObject toJson(Leaderboard leaderboard) {
@@ -132,15 +168,15 @@ public class LeaderboardManager implements AutoSaved {
         json.addProperty("color", leaderboard.getColor().name());
         json.addProperty("entryCount", leaderboard.getEntryCount());
         json.addProperty("scale", leaderboard.getScale());
+        json.addProperty("refreshInterval", leaderboard.getRefreshInterval());
         json.addProperty("textUUID", leaderboard.getTextUUID().toString());
         return json;
     }
 
     private void tryLoad(LeaderboardEntryProvider provider) {
-        JsonObject root = dataManager.getRoot();
-        String providerName = provider.getName();
-        if (!root.has(providerName)) return;
-        JsonArray array = root.getAsJsonArray(providerName);
+        JsonElement data = unregisteredProviderData.remove(provider.getName());
+        if (data == null) return;
+        JsonArray array = data.getAsJsonArray();
         for (JsonElement jsonElement : array) {
             JsonObject jsonObject = jsonElement.getAsJsonObject();
             Leaderboard leaderboard = fromJson(jsonObject, provider);
@@ -156,6 +192,10 @@ public class LeaderboardManager implements AutoSaved {
         int entryCount = json.get("entryCount").getAsInt();
         float scale = json.has("scale") ? json.get("scale").getAsFloat() : Leaderboard.DEFAULT_SCALE;
         UUID textUUID = UUID.fromString(json.get("textUUID").getAsString());
-        return new Leaderboard(id, location, provider, title, color, entryCount, scale, textUUID);
+        Leaderboard leaderboard = new Leaderboard(id, location, provider, title, color, entryCount, scale, textUUID);
+        if (json.has("refreshInterval")) {
+            leaderboard.setRefreshInterval(json.get("refreshInterval").getAsInt());
+        }
+        return leaderboard;
     }
 }
@@ -0,0 +1,135 @@
+package me.clickism.clickeventlib.leaderboard;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Refreshes leaderboards on their own refresh intervals, independent of saving.
+ * <p>
+ * Leaderboards are visited round-robin, and at most {@link #getMaxUpdatesPerTick()} leaderboards are updated
+ * per tick, so the cost of redrawing is spread across ticks.
+ * Leaderboards whose chunk is not loaded or that have no player within {@link #VIEW_DISTANCE} blocks are skipped
+ * until they can be seen again.
+ * <p>
+ * Entries of {@link AsyncLeaderboardEntryProvider}s are computed on an async task,
+ * and only the text is set on the main thread.
+ */
+public class LeaderboardRefresher {
+    /**
+     * Default maximum number of leaderboards updated per tick.
+     */
+    public static final int DEFAULT_MAX_UPDATES_PER_TICK = 2;
+    /**
+     * Distance in blocks within which a player counts as a viewer of a leaderboard.
+     */
+    public static final double VIEW_DISTANCE = 64;
+
+    private final List<Leaderboard> leaderboards = new ArrayList<>();
+    private final Map<Leaderboard, Long> nextRefreshTicks = new HashMap<>();
+    private final int maxUpdatesPerTick;
+    private final Executor asyncExecutor;
+    private final Executor mainThreadExecutor;
+
+    private long tick = 0;
+    private int cursor = 0;
+
+    /**
+     * Creates a new leaderboard refresher and starts it.
+     *
+     * @param plugin            plugin
+     * @param maxUpdatesPerTick maximum number of leaderboards updated per tick
+     * @throws IllegalArgumentException if the maximum number of updates per tick is less than 1
+     */
+    public LeaderboardRefresher(JavaPlugin plugin, int maxUpdatesPerTick) throws IllegalArgumentException {
+        if (maxUpdatesPerTick < 1) {
+            throw new IllegalArgumentException("Maximum updates per tick must be at least 1");
+        }
+        this.maxUpdatesPerTick = maxUpdatesPerTick;
+        BukkitScheduler scheduler = plugin.getServer().getScheduler();
+        this.asyncExecutor = task -> scheduler.runTaskAsynchronously(plugin, task);
+        this.mainThreadExecutor = task -> {
+            // Results that arrive after the plugin was disabled are dropped
+            if (!plugin.isEnabled()) return;
+            scheduler.runTask(plugin, task);
+        };
+        scheduler.runTaskTimer(plugin, this::tick, 1, 1);
+    }
+
+    /**
+     * Add a leaderboard to refresh.
+     *
+     * @param leaderboard leaderboard
+     */
+    public void add(Leaderboard leaderboard) {
+        leaderboards.add(leaderboard);
+        nextRefreshTicks.put(leaderboard, tick);
+    }
+
+    /**
+     * Remove a leaderboard.
+     *
+     * @param leaderboard leaderboard
+     */
+    public void remove(Leaderboard leaderboard) {
+        int index = leaderboards.indexOf(leaderboard);
+        if (index < 0) return;
+        leaderboards.remove(index);
+        nextRefreshTicks.remove(leaderboard);
+        if (index < cursor) {
+            cursor--;
+        }
+    }
+
+    /**
+     * Get the maximum number of leaderboards updated per tick.
+     *
+     * @return maximum number of updates per tick
+     */
+    public int getMaxUpdatesPerTick() {
+        return maxUpdatesPerTick;
+    }
+
+    private void tick() {
+        tick++;
+        int size = leaderboards.size();
+        int updates = 0;
+        for (int i = 0; i < size && updates < maxUpdatesPerTick; i++) {
+            if (cursor >= size) {
+                cursor = 0;
+            }
+            Leaderboard leaderboard = leaderboards.get(cursor++);
+            if (nextRefreshTicks.get(leaderboard) > tick) continue;
+            // Boards that can't be seen stay due, so they are updated as soon as they can be seen again
+            if (!isViewed(leaderboard)) continue;
+            nextRefreshTicks.put(leaderboard, tick + leaderboard.getRefreshInterval());
+            leaderboard.updateAsync(asyncExecutor, mainThreadExecutor);
+            updates++;
+        }
+        // Text that fades is sent again without updating the leaderboard
+        for (Leaderboard leaderboard : leaderboards) {
+            leaderboard.resendViewers(tick);
+        }
+    }
+
+    private static boolean isViewed(Leaderboard leaderboard) {
+        Location location = leaderboard.getSafeLocation().getLocation();
+        if (location == null) return false;
+        World world = location.getWorld();
+        if (world == null) return false;
+        if (!world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) return false;
+        double maxDistanceSquared = VIEW_DISTANCE * VIEW_DISTANCE;
+        for (Player player : world.getPlayers()) {
+            if (player.getLocation().distanceSquared(location) <= maxDistanceSquared) return true;
+        }
+        return false;
+    }
+}
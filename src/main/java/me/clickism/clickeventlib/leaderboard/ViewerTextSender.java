@@ -0,0 +1,66 @@
+package me.clickism.clickeventlib.leaderboard;
+
+import me.clickism.clickeventlib.util.Utils;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+
+/**
+ * Sends the viewer-specific text of a leaderboard to a viewer.
+ * <p>
+ * Implementations backed by a packet library can send the text as entity metadata of the shared text display,
+ * so every viewer sees their own page and rank on the same entity without spawning an entity per viewer.
+ */
+@FunctionalInterface
+public interface ViewerTextSender {
+    /**
+     * Fallback sender that only sends the personal row to the action bar of the viewer,
+     * since the text of an entity can't be changed for a single player without packets.
+     * The row is sent again every 2 seconds while the viewer is near the leaderboard, so it doesn't fade,
+     * and the text display keeps showing the first page to everyone.
+     */
+    ViewerTextSender ACTION_BAR = new ViewerTextSender() {
+        @Override
+        public void send(Player viewer, TextDisplay display, String text, String personalRow) {
+            Utils.sendActionbar(viewer, personalRow);
+        }
+
+        @Override
+        public int getResendInterval() {
+            return 40;
+        }
+
+        @Override
+        public boolean showsPages() {
+            return false;
+        }
+    };
+
+    /**
+     * Send the text of the leaderboard to the given viewer.
+     *
+     * @param viewer      viewer
+     * @param display     shared text display of the leaderboard
+     * @param text        text of the page the viewer is on, shared by all viewers on the page
+     * @param personalRow row with the rank and value of the viewer
+     */
+    void send(Player viewer, TextDisplay display, String text, String personalRow);
+
+    /**
+     * Get the interval in ticks after which the text is sent again while the viewer is near the leaderboard,
+     * i.E. for text that fades.
+     *
+     * @return resend interval in ticks, or 0 to only send the text when it changes
+     */
+    default int getResendInterval() {
+        return 0;
+    }
+
+    /**
+     * Check whether the page the viewer is on is shown, or only the personal row.
+     *
+     * @return true if the text of the page is shown
+     */
+    default boolean showsPages() {
+        return true;
+    }
+}
@@ -65,7 +65,7 @@ public class EventLocationManager {
         for (EventLocation eventLocation : eventLocations) {
             root.add(eventLocation.getName(), JSONDataManager.GSON.toJsonTree(eventLocation.getSafeLocation()));
         }
-        dataManager.save(root);
+        dataManager.saveAsync(root);
     }
 
     /**
@@ -49,6 +49,7 @@ public class PointManager {
         this.adderItem = itemManager.register(new PointAdderItem(pluginNamespace, this));
         this.selectorItem = itemManager.register(new PointSelectorItem(pluginNamespace, this));
         load();
+        dataManager.releaseRoot();
     }
 
     /**
@@ -156,7 +157,7 @@ public class PointManager {
             pointsArray.add(pointObject);
         }
         json.add("points", pointsArray);
-        dataManager.save(json);
+        dataManager.saveAsync(json);
     }
 
     private void load() {
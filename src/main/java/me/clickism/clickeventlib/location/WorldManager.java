@@ -44,6 +44,7 @@ public class WorldManager implements Listener {
         } catch (IOException e) {
             plugin.getLogger().severe("Failed to import world(s): " + e.getMessage());
         }
+        dataManager.releaseRoot();
     }
 
     /**
@@ -176,6 +177,6 @@ public class WorldManager implements Listener {
             alwaysLoaded.add(worldName);
         }
         json.add("always_loaded_worlds", alwaysLoaded);
-        dataManager.save(json);
+        dataManager.saveAsync(json);
     }
 }
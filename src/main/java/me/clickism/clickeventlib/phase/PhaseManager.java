@@ -7,6 +7,7 @@ import me.clickism.clickeventlib.annotations.RegistryType;
 import me.clickism.clickeventlib.location.EventWorld;
 import me.clickism.clickeventlib.location.WorldManager;
 import me.clickism.clickeventlib.phase.group.PhaseGroup;
+import me.clickism.clickeventlib.serialization.DataManager;
 import me.clickism.clickeventlib.serialization.JSONDataManager;
 import me.clickism.subcommandapi.util.NamedCollection;
 import org.bukkit.Bukkit;
@@ -16,6 +17,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,8 +27,18 @@ import java.util.ArrayList;
 
 /**
  * Handles the phases of an event and the lobby.
+ * <p>
+ * Phase and group changes are saved immediately, while the progress of the current phase
+ * is only checkpointed every {@link #getCheckpointInterval()} seconds and when the plugin is disabled.
+ * After a crash, the current phase resumes from the last checkpoint,
+ * so at most one checkpoint interval of progress is replayed.
  */
 public class PhaseManager implements Listener {
+    /**
+     * Default interval in seconds between checkpoints of the phase progress.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 30;
+
     private final JavaPlugin plugin;
 
     private final NamedCollection<PhaseGroup> phaseGroups = new NamedCollection<>(new ArrayList<>());
@@ -36,10 +48,15 @@ public class PhaseManager implements Listener {
 
     private long secondsPassed = 0;
 
+    private final int checkpointInterval;
+    private int secondsSinceCheckpoint = 0;
+
     private final EventBar eventBar;
     private final WorldManager worldManager;
 
     private final JSONDataManager dataManager;
+    // Saved state of a phase group that wasn't registered yet, kept so saving doesn't drop it
+    private @Nullable JsonObject unloadedState;
 
     /**
      * Create a new phase manager.
@@ -52,10 +69,36 @@ public class PhaseManager implements Listener {
      */
     @AutoRegistered(type = RegistryType.EVENT)
     public PhaseManager(JavaPlugin plugin, @Nullable EventBar eventBar, String fileName, WorldManager worldManager) throws IOException {
+        this(plugin, eventBar, fileName, worldManager, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Create a new phase manager that checkpoints the phase progress on the given interval.
+     *
+     * @param plugin             plugin
+     * @param eventBar           event bar
+     * @param fileName           file name
+     * @param worldManager       world manager used to manage event worlds
+     * @param checkpointInterval interval in seconds between checkpoints of the phase progress
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the checkpoint interval is less than 1
+     */
+    @AutoRegistered(type = RegistryType.EVENT)
+    public PhaseManager(JavaPlugin plugin, @Nullable EventBar eventBar, String fileName, WorldManager worldManager,
+                        int checkpointInterval) throws IOException, IllegalArgumentException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1 second");
+        }
+        this.checkpointInterval = checkpointInterval;
         this.plugin = plugin;
         this.eventBar = eventBar;
         this.worldManager = worldManager;
         this.dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
+        JsonObject root = dataManager.getRoot();
+        if (root.has("group") && !root.get("group").isJsonNull()) {
+            this.unloadedState = root;
+        }
+        dataManager.releaseRoot();
         Server server = plugin.getServer();
         server.getScheduler().runTaskTimer(plugin, this::tick, 20, 20);
         server.getPluginManager().registerEvents(this, plugin);
@@ -78,18 +121,17 @@ public class PhaseManager implements Listener {
         updateBar();
         currentPhase.onTick(secondsPassed);
         secondsPassed++;
-        if (currentPhase.getDuration() == Phase.INFINITE_DURATION) {
-            save();
-            return;
-        }
-        if (secondsPassed >= currentPhase.getDuration()) {
+        if (currentPhase.getDuration() != Phase.INFINITE_DURATION && secondsPassed >= currentPhase.getDuration()) {
+            // Starting a phase saves immediately
             Phase next = startNextPhase();
             // Skip phases with 0 duration
             while (next != null && next.getDuration() == 0) {
                 next = startNextPhase();
             }
         }
-        save();
+        if (++secondsSinceCheckpoint >= checkpointInterval) {
+            save();
+        }
     }
 
     /**
@@ -126,6 +168,18 @@ public class PhaseManager implements Listener {
     }
 
     private void setPhase(Phase phase, boolean start) throws IllegalArgumentException {
+        applyPhase(phase, start);
+        save();
+    }
+
+    /**
+     * Set the given phase without saving.
+     *
+     * @param phase phase to set
+     * @param start whether to start the phase
+     * @throws IllegalArgumentException if no phase group is set
+     */
+    private void applyPhase(Phase phase, boolean start) throws IllegalArgumentException {
         if (currentPhaseGroup == null) {
             throw new IllegalArgumentException("No phase group set");
         }
@@ -136,7 +190,6 @@ public class PhaseManager implements Listener {
         currentPhaseGroup.setCurrentPhase(phase);
         secondsPassed = 0;
         initPhase(phase, start);
-        save();
     }
 
     /**
@@ -220,6 +273,17 @@ public class PhaseManager implements Listener {
      * @param phaseGroup phase group
      */
     public void setPhaseGroup(PhaseGroup phaseGroup) {
+        applyPhaseGroup(phaseGroup);
+        save();
+    }
+
+    /**
+     * Set the current phase group without saving.
+     *
+     * @param phaseGroup phase group
+     */
+    private void applyPhaseGroup(PhaseGroup phaseGroup) {
+        unloadedState = null;
         this.currentPhaseGroup = phaseGroup;
         this.currentPhaseGroup.reset();
     }
@@ -285,6 +349,7 @@ public class PhaseManager implements Listener {
         long duration = currentPhase.getDuration();
         this.secondsPassed = duration - secondsRemaining;
         updateBar();
+        save();
     }
 
     /**
@@ -294,6 +359,16 @@ public class PhaseManager implements Listener {
      */
     public void setSecondsPassed(long secondsPassed) {
         this.secondsPassed = secondsPassed;
+        save();
+    }
+
+    /**
+     * Get the interval in seconds between checkpoints of the phase progress.
+     *
+     * @return checkpoint interval in seconds
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
     }
 
     private void updateBar() {
@@ -318,28 +393,47 @@ public class PhaseManager implements Listener {
         currentPhase.onLeaveServer(player);
     }
 
+    @EventHandler
+    private void onDisable(PluginDisableEvent event) {
+        if (!event.getPlugin().equals(plugin)) return;
+        save();
+        DataManager.flushPendingWrites();
+    }
+
     private void save() {
+        secondsSinceCheckpoint = 0;
+        if (currentPhaseGroup == null && unloadedState != null) {
+            // The saved group wasn't registered yet, the saved state is never modified
+            dataManager.saveAsync(unloadedState);
+            return;
+        }
         JsonObject json = new JsonObject();
         json.addProperty("group", currentPhaseGroup != null ? currentPhaseGroup.getName() : null);
         json.addProperty("phase", currentPhase != null ? currentPhase.getName() : null);
         json.addProperty("seconds", secondsPassed);
-        dataManager.save(json);
+        dataManager.saveAsync(json);
     }
 
     private void tryLoad(PhaseGroup group) {
-        JsonObject root = dataManager.getRoot();
-        if (!root.has("group")) return;
+        JsonObject root = unloadedState;
+        if (root == null) return;
         String groupName = root.get("group").getAsString();
+        if (!group.getName().equals(groupName)) return;
+        // Nothing is saved until the phase is restored, so the saved phase isn't overwritten
+        applyPhaseGroup(group);
+        // The group may have been saved before its first phase was started
+        if (!root.has("phase") || root.get("phase").isJsonNull()) return;
         String phaseName = root.get("phase").getAsString();
         long seconds = root.get("seconds").getAsLong();
 
-        if (!group.getName().equals(groupName)) return;
-        setPhaseGroup(group);
         Phase phase = group.getPhases().get(phaseName);
         if (phase == null) {
             ClickEventLib.LOGGER.severe("Phase '" + phaseName + "' not found in group '" + groupName + "'");
+            return;
         }
-        setPhase(phase, false);
-        setSecondsPassed(seconds);
+        // Resume from the last checkpoint
+        applyPhase(phase, false);
+        secondsPassed = seconds;
+        save();
     }
 }
@@ -24,6 +24,7 @@ public class AutoSaver implements Listener {
 
     private final List<AutoSaved> saveOnDisableList = new ArrayList<>();
     private final Map<AutoSaved, Integer> saveOnIntervalList = new HashMap<>();
+    private final List<Runnable> closeOnDisableList = new ArrayList<>();
 
     private final JavaPlugin plugin;
 
@@ -68,6 +69,16 @@ public class AutoSaver implements Listener {
         saveOnDisableList.add(toSave);
     }
 
+    /**
+     * Register a task to run on plugin disable, after all objects were saved and pending writes were written,
+     * i.E. to close files that are kept open.
+     *
+     * @param onClose task to run
+     */
+    public void registerCloseOnDisable(Runnable onClose) {
+        closeOnDisableList.add(onClose);
+    }
+
     /**
      * Register a {@link AutoSaved} object to be saved on an interval.
      * If the interval is less than {@link #INTERVAL_UNIT}, it will be saved on every save cycle.
@@ -87,5 +98,7 @@ public class AutoSaver implements Listener {
     private void onDisable(PluginDisableEvent event) {
         if (!event.getPlugin().equals(plugin)) return;
         saveOnDisableList.forEach(AutoSaved::save);
+        DataManager.flushPendingWrites();
+        closeOnDisableList.forEach(Runnable::run);
     }
 }
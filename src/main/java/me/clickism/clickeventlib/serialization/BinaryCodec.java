@@ -0,0 +1,30 @@
+package me.clickism.clickeventlib.serialization;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads values of a type in a compact binary format.
+ *
+ * @param <T> type of the values
+ */
+public interface BinaryCodec<T> {
+    /**
+     * Write the given value.
+     *
+     * @param out   output to write to
+     * @param value value to write
+     * @throws IOException if an I/O error occurs
+     */
+    void write(DataOutput out, T value) throws IOException;
+
+    /**
+     * Read a value.
+     *
+     * @param in input to read from
+     * @return the read value
+     * @throws IOException if an I/O error occurs
+     */
+    T read(DataInput in) throws IOException;
+}
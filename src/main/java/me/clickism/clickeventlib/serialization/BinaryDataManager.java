@@ -0,0 +1,168 @@
+package me.clickism.clickeventlib.serialization;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A data manager that saves and loads data in a compact binary format.
+ * <p>
+ * The file consists of named sections. Every section is stored as its name
+ * followed by its length in bytes and its content, so sections can be skipped
+ * without being parsed. The content of a section is written by the manager that owns it.
+ * <p>
+ * Loaded sections are released once they are read. If the file can't be read,
+ * it is moved aside with the ".corrupt" extension, so it isn't overwritten by the next save.
+ */
+public class BinaryDataManager extends DataManager {
+    private static final int MAGIC = 0x43454C42; // "CELB"
+    private static final int VERSION = 1;
+
+    // Assigned by load(), which runs in the super constructor, so it must not have an initializer
+    private Map<String, byte[]> sections;
+
+    /**
+     * Create a new BinaryDataManager.
+     *
+     * @param plugin    plugin
+     * @param directory directory of the file
+     * @param fileName  fileName, i.E: "statistics.dat"
+     * @throws IOException if an I/O error occurs
+     */
+    public BinaryDataManager(JavaPlugin plugin, @NotNull File directory, String fileName) throws IOException {
+        super(plugin, directory, fileName);
+    }
+
+    @Override
+    public void load() {
+        Map<String, byte[]> sections = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary data file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                sections.put(name, content);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to load file: " + file.getPath() + ": " + e.getMessage());
+            moveCorruptFile();
+        }
+        this.sections = sections;
+    }
+
+    private void moveCorruptFile() {
+        Path target = file.toPath();
+        Path corrupt = target.resolveSibling(file.getName() + ".corrupt");
+        try {
+            Files.move(target, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().severe("Moved unreadable file to: " + corrupt);
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to move unreadable file: " + file.getPath());
+        }
+    }
+
+    /**
+     * Saves the given sections to the file on the calling thread.
+     *
+     * @param sections map of section names to their content
+     */
+    public void save(Map<String, byte[]> sections) {
+        try {
+            writeAtomically(out -> writeSections(sections, out));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save file: " + file.getPath());
+        }
+    }
+
+    /**
+     * Saves the given sections to the file on the I/O thread.
+     * Multiple pending saves of the same file are coalesced into one write.
+     * <p>
+     * The sections are written on the I/O thread, so they must not be modified after calling this method.
+     *
+     * @param sections map of section names to their content
+     * @return future that completes when the file has been written
+     */
+    public CompletableFuture<Void> saveAsync(Map<String, byte[]> sections) {
+        return writeAsync(out -> writeSections(sections, out));
+    }
+
+    private static void writeSections(Map<String, byte[]> sections, OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeInt(VERSION);
+        dataOut.writeInt(sections.size());
+        for (Map.Entry<String, byte[]> entry : sections.entrySet()) {
+            dataOut.writeUTF(entry.getKey());
+            dataOut.writeInt(entry.getValue().length);
+            dataOut.write(entry.getValue());
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * Get the loaded content of the given section and release it.
+     *
+     * @param name name of the section
+     * @return input of the content, or null if the section doesn't exist or was already read
+     */
+    @Nullable
+    public DataInputStream getSection(String name) {
+        if (sections == null) return null;
+        byte[] content = sections.remove(name);
+        if (content == null) return null;
+        return new DataInputStream(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Get the loaded sections that weren't read yet,
+     * so they can be saved again if their owner wasn't registered yet.
+     *
+     * @return unread sections
+     */
+    public Map<String, byte[]> getUnreadSections() {
+        if (sections == null) return Map.of();
+        return Collections.unmodifiableMap(sections);
+    }
+
+    /**
+     * Write the given UUID as two longs.
+     *
+     * @param out  output to write to
+     * @param uuid UUID to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeUUID(DataOutput out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Read a UUID written with {@link #writeUUID(DataOutput, UUID)}.
+     *
+     * @param in input to read from
+     * @return the read UUID
+     * @throws IOException if an I/O error occurs
+     */
+    public static UUID readUUID(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
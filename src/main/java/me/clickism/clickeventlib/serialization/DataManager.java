@@ -3,13 +3,51 @@ package me.clickism.clickeventlib.serialization;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.*;
 
 /**
  * DataManager interface.
  */
 public abstract class DataManager {
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Write the content to the given output stream.
+         *
+         * @param out output stream of the file
+         * @throws IOException if an I/O error occurs
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Maximum time in seconds to wait for pending writes in {@link #flushPendingWrites()}.
+     */
+    private static final long FLUSH_TIMEOUT = 30;
+
+    /**
+     * Single thread that all asynchronous writes are done on, so writes to the same file never overlap.
+     */
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ClickEventLib-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * The plugin used.
      */
@@ -19,6 +57,10 @@ public abstract class DataManager {
      */
     protected final File file;
 
+    private final Object writeLock = new Object();
+    private ContentWriter pendingWriter;
+    private CompletableFuture<Void> pendingFuture;
+
     /**
      * Create a new DataManager instance.
      *
@@ -42,6 +84,106 @@ public abstract class DataManager {
      */
     public abstract void load();
 
+    /**
+     * Check whether the file exists.
+     *
+     * @return true if the file exists
+     */
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Writes the file on the calling thread.
+     * <p>
+     * The content is written to a temporary file, synced to disk and then moved over the file,
+     * so the file is never left half-written. The previous file is kept as a ".old" backup.
+     *
+     * @param writer writer of the content
+     * @throws IOException if an I/O error occurs
+     */
+    protected void writeAtomically(ContentWriter writer) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            writer.write(out);
+            out.flush();
+            channel.force(true);
+        }
+        if (Files.exists(target)) {
+            Path backup = target.resolveSibling(file.getName() + ".old");
+            try {
+                Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException exception) {
+                plugin.getLogger().severe("Failed to create backup file: " + backup);
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the file on the I/O thread with {@link #writeAtomically(ContentWriter)}.
+     * <p>
+     * If a write of this file is already waiting, it is replaced by this one,
+     * so multiple pending saves are coalesced into a single write.
+     * The writer is called on the I/O thread, so it must only access data that isn't modified afterward.
+     *
+     * @param writer writer of the content
+     * @return future that completes when the content has been written
+     */
+    protected CompletableFuture<Void> writeAsync(ContentWriter writer) {
+        CompletableFuture<Void> future;
+        synchronized (writeLock) {
+            boolean queued = pendingWriter != null;
+            pendingWriter = writer;
+            if (queued) {
+                return pendingFuture;
+            }
+            future = pendingFuture = new CompletableFuture<>();
+        }
+        IO_EXECUTOR.execute(this::writePending);
+        return future;
+    }
+
+    private void writePending() {
+        ContentWriter writer;
+        CompletableFuture<Void> future;
+        synchronized (writeLock) {
+            writer = pendingWriter;
+            future = pendingFuture;
+            pendingWriter = null;
+            pendingFuture = null;
+        }
+        try {
+            writeAtomically(writer);
+            future.complete(null);
+        } catch (IOException | RuntimeException exception) {
+            // Runtime exceptions of the writer would otherwise leave the future incomplete
+            plugin.getLogger().severe("Failed to save file: " + file.getPath() + ": " + exception.getMessage());
+            future.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Blocks until all pending asynchronous writes are written.
+     * Should be called when the plugin is disabled, so no data is lost on shutdown.
+     */
+    public static void flushPendingWrites() {
+        try {
+            IO_EXECUTOR.submit(() -> {
+            }).get(FLUSH_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+        }
+    }
+
     /**
      * Get the trimmed path of a file relative to the plugin's data folder.
      * i.E: "plugins/MyPlugin/data/config.yml" -> "data/config.yml"
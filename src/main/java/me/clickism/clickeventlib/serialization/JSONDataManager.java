@@ -3,18 +3,54 @@ package me.clickism.clickeventlib.serialization;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import me.clickism.clickeventlib.location.SafeLocation;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A data manager that saves and loads data in JSON format.
+ * <p>
+ * Data can either be accessed as a tree with {@link #getRoot()},
+ * or streamed with {@link #readStreaming(PropertyVisitor)} and {@link #saveStreaming(StreamWriter)}
+ * without materializing the whole file in memory.
  */
 public class JSONDataManager extends DataManager {
+    /**
+     * Visits the top-level properties of a JSON file.
+     */
+    @FunctionalInterface
+    public interface PropertyVisitor {
+        /**
+         * Visit a top-level property.
+         * The value must either be read completely, or not be read at all and skipped by returning false.
+         *
+         * @param name   name of the property
+         * @param reader reader positioned at the value of the property
+         * @return true if the value was read, false to skip it
+         * @throws IOException if an I/O error occurs
+         */
+        boolean visit(String name, JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Writes a JSON document.
+     */
+    @FunctionalInterface
+    public interface StreamWriter {
+        /**
+         * Write the document.
+         *
+         * @param writer writer to write the document to
+         * @throws IOException if an I/O error occurs
+         */
+        void write(JsonWriter writer) throws IOException;
+    }
+
     /**
      * Gson instance.
      */
@@ -38,46 +74,131 @@ public class JSONDataManager extends DataManager {
     }
 
     /**
-     * Saves the given json object to the file.
+     * Saves the given json object to the file on the calling thread.
      *
      * @param json the json object to save
      */
     public void save(JsonObject json) {
-        File backupFile = new File(file.getPath() + ".old");
         try {
-            Files.copy(file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            writeAtomically(out -> writeJson(json, out));
         } catch (IOException e) {
-            plugin.getLogger().severe("Failed to create backup file: " + backupFile.getPath());
+            plugin.getLogger().severe("Failed to save file: " + file.getPath());
         }
-        try (FileWriter writer = new FileWriter(file)) {
-            GSON.toJson(json, writer);
+    }
+
+    /**
+     * Saves the given json object to the file on the I/O thread.
+     * Multiple pending saves of the same file are coalesced into one write.
+     * <p>
+     * The json object is serialized on the I/O thread, so it must not be modified after calling this method.
+     *
+     * @param json the json object to save
+     * @return future that completes when the file has been written
+     */
+    public CompletableFuture<Void> saveAsync(JsonObject json) {
+        return writeAsync(out -> writeJson(json, out));
+    }
+
+    private static void writeJson(JsonObject json, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out);
+        GSON.toJson(json, writer);
+        writer.flush();
+    }
+
+    /**
+     * Saves the document written by the given writer to the file on the calling thread.
+     *
+     * @param streamWriter writer of the document
+     */
+    public void saveStreaming(StreamWriter streamWriter) {
+        try {
+            writeAtomically(out -> writeStream(streamWriter, out));
         } catch (IOException e) {
             plugin.getLogger().severe("Failed to save file: " + file.getPath());
         }
     }
 
-    @Override
-    public void load() {
-        try {
-            JsonObject root = GSON.fromJson(new FileReader(file), JsonObject.class);
-            if (root != null) {
-                this.root = root;
+    /**
+     * Saves the document written by the given writer to the file on the I/O thread.
+     * Multiple pending saves of the same file are coalesced into one write.
+     * <p>
+     * The writer is called on the I/O thread, so it must only access a snapshot of the data.
+     *
+     * @param streamWriter writer of the document
+     * @return future that completes when the file has been written
+     */
+    public CompletableFuture<Void> saveStreamingAsync(StreamWriter streamWriter) {
+        return writeAsync(out -> writeStream(streamWriter, out));
+    }
+
+    private static void writeStream(StreamWriter streamWriter, OutputStream out) throws IOException {
+        JsonWriter writer = GSON.newJsonWriter(new OutputStreamWriter(out));
+        streamWriter.write(writer);
+        writer.flush();
+    }
+
+    /**
+     * Reads the file one top-level property at a time, without materializing the whole file.
+     *
+     * @param visitor visitor of the top-level properties
+     */
+    public void readStreaming(PropertyVisitor visitor) {
+        if (!file.exists() || file.length() == 0) return;
+        try (JsonReader reader = GSON.newJsonReader(new BufferedReader(new FileReader(file)))) {
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (!visitor.visit(name, reader)) {
+                    reader.skipValue();
+                }
             }
-        } catch (FileNotFoundException e) {
-            plugin.getLogger().severe("File not found: " + file.getPath());
+            reader.endObject();
+        } catch (IOException | IllegalStateException e) {
+            plugin.getLogger().severe("Failed to read file: " + file.getPath() + ": " + e.getMessage());
         }
     }
 
+    /**
+     * Discards the loaded root json object. It is parsed again from the file on the next {@link #getRoot()} call.
+     */
+    @Override
+    public void load() {
+        root = null;
+    }
+
     /**
      * Get the root json object.
+     * The file is parsed on the first call, and the root stays in memory until {@link #releaseRoot()} is called.
      *
      * @return the root json object
      */
     @NotNull
     public JsonObject getRoot() {
         if (root == null) {
-            root = new JsonObject();
+            root = parseRoot();
         }
         return root;
     }
+
+    /**
+     * Release the root json object, i.E. after all data was loaded from it.
+     * It is parsed again from the file on the next {@link #getRoot()} call.
+     */
+    public void releaseRoot() {
+        root = null;
+    }
+
+    private JsonObject parseRoot() {
+        if (!file.exists()) return new JsonObject();
+        try (Reader reader = new FileReader(file)) {
+            JsonObject root = GSON.fromJson(reader, JsonObject.class);
+            if (root != null) {
+                return root;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to read file: " + file.getPath());
+        }
+        return new JsonObject();
+    }
 }
@@ -0,0 +1,24 @@
+package me.clickism.clickeventlib.serialization;
+
+/**
+ * Encodes values of a type into exactly 64 bits, i.E. to store them in fixed-size records.
+ *
+ * @param <T> type of the values
+ */
+public interface LongCodec<T> {
+    /**
+     * Encode the given value.
+     *
+     * @param value value to encode
+     * @return the encoded bits
+     */
+    long encode(T value);
+
+    /**
+     * Decode the given bits.
+     *
+     * @param bits bits to decode
+     * @return the decoded value
+     */
+    T decode(long bits);
+}
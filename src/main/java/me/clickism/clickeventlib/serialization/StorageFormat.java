@@ -0,0 +1,15 @@
+package me.clickism.clickeventlib.serialization;
+
+/**
+ * Format a manager stores its data file in.
+ */
+public enum StorageFormat {
+    /**
+     * Pretty-printed JSON, stored with {@link JSONDataManager}.
+     */
+    JSON,
+    /**
+     * Compact binary format, stored with {@link BinaryDataManager}.
+     */
+    BINARY
+}
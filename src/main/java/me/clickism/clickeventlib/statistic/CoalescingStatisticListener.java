@@ -0,0 +1,99 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Listener that collects the changes of a statistic and passes them to another listener once per tick,
+ * on the main thread.
+ * <p>
+ * Multiple changes of the same UUID in a tick are coalesced into one change from the first old value
+ * to the last new value, and changes that end at the value they started from are dropped.
+ *
+ * @param <T> type of the statistic
+ */
+public class CoalescingStatisticListener<T> implements StatisticListener<T> {
+    private final JavaPlugin plugin;
+    private final StatisticListener<T> listener;
+
+    private final Map<UUID, PendingChange<T>> pending = new LinkedHashMap<>();
+    private boolean cleared = false;
+    private boolean scheduled = false;
+
+    /**
+     * Creates a new coalescing listener.
+     *
+     * @param plugin   plugin used to schedule the task that passes the changes
+     * @param listener listener to pass the coalesced changes to
+     */
+    public CoalescingStatisticListener(JavaPlugin plugin, StatisticListener<T> listener) {
+        this.plugin = plugin;
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized void onChange(UUID uuid, @Nullable T oldValue, @Nullable T newValue) {
+        PendingChange<T> change = pending.get(uuid);
+        if (change != null) {
+            change.newValue = newValue;
+        } else {
+            pending.put(uuid, new PendingChange<>(oldValue, newValue));
+        }
+        schedule();
+    }
+
+    @Override
+    public synchronized void onBatchChange(Map<UUID, StatisticListener.Change<T>> changes) {
+        changes.forEach((uuid, change) -> onChange(uuid, change.oldValue(), change.newValue()));
+    }
+
+    @Override
+    public synchronized void onClear() {
+        // Changes before the clear are overridden by it
+        pending.clear();
+        cleared = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled || !plugin.isEnabled()) return;
+        scheduled = true;
+        plugin.getServer().getScheduler().runTask(plugin, this::flush);
+    }
+
+    private void flush() {
+        Map<UUID, PendingChange<T>> changes;
+        boolean wasCleared;
+        synchronized (this) {
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+            wasCleared = cleared;
+            cleared = false;
+            scheduled = false;
+        }
+        if (wasCleared) {
+            listener.onClear();
+        }
+        changes.forEach((uuid, change) -> {
+            if (Objects.equals(change.oldValue, change.newValue)) return;
+            listener.onChange(uuid, change.oldValue, change.newValue);
+        });
+    }
+
+    private static class PendingChange<T> {
+        @Nullable
+        private final T oldValue;
+        @Nullable
+        private T newValue;
+
+        private PendingChange(@Nullable T oldValue, @Nullable T newValue) {
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Statistic that can be updated from any thread.
+ * <p>
+ * Values are stored in a {@link ConcurrentHashMap}, and increments are applied atomically per UUID,
+ * so async listeners can update the statistic without switching to the main thread,
+ * and saving can copy the values without blocking writers.
+ * <p>
+ * The values are not kept ordered, the leaderboard entries are sorted when they are requested,
+ * and changes are not journaled. Listeners are called on the thread that changed the value.
+ *
+ * @param <T> type of the statistic
+ */
+public class ConcurrentStatistic<T> extends Statistic<T> {
+    private final Map<UUID, T> values = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new concurrent statistic with the given type and identifier.
+     * Without a comparator, the leaderboard order is undefined.
+     *
+     * @param type         type of the statistic
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     */
+    public ConcurrentStatistic(StatisticType<T> type, String name, T defaultValue) {
+        this(type, name, defaultValue, null);
+    }
+
+    /**
+     * Creates a new concurrent statistic with the given type, identifier, default value, and comparator.
+     * The comparator is used for the leaderboard.
+     *
+     * @param type         type of the statistic
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     */
+    public ConcurrentStatistic(StatisticType<T> type, String name, T defaultValue, @Nullable Comparator<T> comparator) {
+        super(type, name, defaultValue, comparator, false);
+    }
+
+    /**
+     * Set the value of the statistic for the given UUID.
+     * Setting the value to null removes it.
+     *
+     * @param uuid  the UUID
+     * @param value the new value of the statistic
+     */
+    @Override
+    public void set(UUID uuid, @Nullable T value) {
+        if (value == null) {
+            remove(uuid);
+            return;
+        }
+        T oldValue = values.put(uuid, value);
+        if (!Objects.equals(oldValue, value)) {
+            markChanged(uuid, oldValue, value);
+        }
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given UUID atomically.
+     *
+     * @param uuid      the UUID of the player
+     * @param increment the increment
+     */
+    @Override
+    public void incrementBy(UUID uuid, T increment) {
+        StatisticType<T> type = getType();
+        // Retry until no other thread changed the value in between, so the old value is known for the listeners
+        while (true) {
+            T oldValue = values.get(uuid);
+            T newValue = type.sum(oldValue != null ? oldValue : getDefaultValue(), increment);
+            boolean replaced = oldValue != null
+                    ? values.replace(uuid, oldValue, newValue)
+                    : values.putIfAbsent(uuid, newValue) == null;
+            if (!replaced) continue;
+            if (!Objects.equals(oldValue, newValue)) {
+                markChanged(uuid, oldValue, newValue);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Increment the values of the given UUIDs by the given increments.
+     * Every increment is applied atomically and changes the version on its own,
+     * since batches can't be tracked across threads.
+     *
+     * @param increments map of UUIDs to increments
+     */
+    @Override
+    public void applyAll(Map<UUID, T> increments) {
+        increments.forEach(this::incrementBy);
+    }
+
+    @Override
+    public void remove(UUID uuid) {
+        T oldValue = values.remove(uuid);
+        if (oldValue != null) {
+            markChanged(uuid, oldValue, null);
+        }
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+        markCleared();
+    }
+
+    @Override
+    public @Nullable T getOrNull(UUID uuid) {
+        return values.get(uuid);
+    }
+
+    /**
+     * Get the map of UUIDs to values.
+     * The map can be iterated while it is updated from other threads, but must not be modified.
+     *
+     * @return the map of UUIDs to values
+     */
+    @Override
+    public Map<UUID, T> getMap() {
+        return values;
+    }
+
+    /**
+     * Get a task that ranks and formats the first entries.
+     * The values can be read from any thread, so they are not copied on the main thread.
+     *
+     * @param limit maximum number of entries
+     * @return task that computes the first leaderboard entries
+     */
+    @Override
+    public @NotNull Supplier<List<Map.Entry<UUID, String>>> snapshotEntries(int limit) {
+        return () -> rankEntries(values.entrySet(), limit);
+    }
+
+    @Override
+    boolean isJournalable() {
+        return false;
+    }
+}
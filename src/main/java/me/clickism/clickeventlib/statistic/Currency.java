@@ -1,8 +1,10 @@
 package me.clickism.clickeventlib.statistic;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.Comparator;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -10,7 +12,7 @@ import java.util.UUID;
  * <p>
  * This class provides functionality to send a message to the player when the currency is incremented.
  */
-public abstract class Currency extends Statistic<Integer> {
+public abstract class Currency extends IntStatistic {
     /**
      * Creates a new currency with the given id and default value.
      *
@@ -18,7 +20,7 @@ public abstract class Currency extends Statistic<Integer> {
      * @param defaultValue the default value
      */
     public Currency(String name, int defaultValue) {
-        super(StatisticType.INTEGER, name, defaultValue, Comparator.reverseOrder());
+        super(name, defaultValue, Comparator.reverseOrder());
     }
 
     /**
@@ -34,6 +36,22 @@ public abstract class Currency extends Statistic<Integer> {
         sendMessage(player, increment);
     }
 
+    /**
+     * Increments the currency of all given UUIDs in one pass, see {@link #applyAll(Map)},
+     * and sends a message to every online player whose increment is greater than 0.
+     *
+     * @param increments map of UUIDs to increments
+     */
+    public void applyAllAndNotify(Map<UUID, Integer> increments) {
+        applyAll(increments);
+        increments.forEach((uuid, increment) -> {
+            if (increment <= 0) return;
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) return;
+            sendMessage(player, increment);
+        });
+    }
+
     /**
      * Increments the currency by the given amount and sends a message to the player.
      *
@@ -79,7 +97,7 @@ public abstract class Currency extends Statistic<Integer> {
      * @return true if the player has at least the given amount of currency, false otherwise
      */
     public boolean hasAtLeast(UUID uuid, Integer amount) {
-        return getOrDefault(uuid) >= amount;
+        return getInt(uuid) >= amount;
     }
 
     /**
@@ -0,0 +1,78 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Double statistic that stores its values as primitives, so incrementing doesn't allocate.
+ */
+public class DoubleStatistic extends PrimitiveStatistic<Double> {
+    /**
+     * Creates a new double statistic.
+     *
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     */
+    public DoubleStatistic(String name, double defaultValue) {
+        this(name, defaultValue, null);
+    }
+
+    /**
+     * Creates a new double statistic with the given comparator for the leaderboard.
+     *
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     */
+    public DoubleStatistic(String name, double defaultValue, @Nullable Comparator<Double> comparator) {
+        super(StatisticType.DOUBLE, name, defaultValue, comparator);
+    }
+
+    /**
+     * Set the value of the statistic for the given UUID.
+     *
+     * @param uuid  the UUID
+     * @param value the new value of the statistic
+     */
+    public void set(UUID uuid, double value) {
+        setBits(uuid, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given player.
+     *
+     * @param player    the player
+     * @param increment the increment
+     */
+    public void incrementBy(Player player, double increment) {
+        incrementBy(player.getUniqueId(), increment);
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given UUID.
+     *
+     * @param uuid      the UUID
+     * @param increment the increment
+     */
+    public void incrementBy(UUID uuid, double increment) {
+        set(uuid, getDouble(uuid) + increment);
+    }
+
+    @Override
+    public void incrementBy(UUID uuid, Double increment) {
+        incrementBy(uuid, increment.doubleValue());
+    }
+
+    /**
+     * Get the value of the statistic for the given UUID or the default value if the UUID does not have a value.
+     *
+     * @param uuid the UUID
+     * @return the value of the statistic
+     */
+    public double getDouble(UUID uuid) {
+        return Double.longBitsToDouble(getBits(uuid, Double.doubleToRawLongBits(getDefaultValue())));
+    }
+}
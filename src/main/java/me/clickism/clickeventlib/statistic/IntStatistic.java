@@ -0,0 +1,78 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Integer statistic that stores its values as primitives, so incrementing doesn't allocate.
+ */
+public class IntStatistic extends PrimitiveStatistic<Integer> {
+    /**
+     * Creates a new integer statistic.
+     *
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     */
+    public IntStatistic(String name, int defaultValue) {
+        this(name, defaultValue, null);
+    }
+
+    /**
+     * Creates a new integer statistic with the given comparator for the leaderboard.
+     *
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     */
+    public IntStatistic(String name, int defaultValue, @Nullable Comparator<Integer> comparator) {
+        super(StatisticType.INTEGER, name, defaultValue, comparator);
+    }
+
+    /**
+     * Set the value of the statistic for the given UUID.
+     *
+     * @param uuid  the UUID
+     * @param value the new value of the statistic
+     */
+    public void set(UUID uuid, int value) {
+        setBits(uuid, value);
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given player.
+     *
+     * @param player    the player
+     * @param increment the increment
+     */
+    public void incrementBy(Player player, int increment) {
+        incrementBy(player.getUniqueId(), increment);
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given UUID.
+     *
+     * @param uuid      the UUID
+     * @param increment the increment
+     */
+    public void incrementBy(UUID uuid, int increment) {
+        set(uuid, getInt(uuid) + increment);
+    }
+
+    @Override
+    public void incrementBy(UUID uuid, Integer increment) {
+        incrementBy(uuid, increment.intValue());
+    }
+
+    /**
+     * Get the value of the statistic for the given UUID or the default value if the UUID does not have a value.
+     *
+     * @param uuid the UUID
+     * @return the value of the statistic
+     */
+    public int getInt(UUID uuid) {
+        return (int) getBits(uuid, getDefaultValue());
+    }
+}
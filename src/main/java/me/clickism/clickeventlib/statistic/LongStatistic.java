@@ -0,0 +1,93 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Long statistic that stores its values as primitives, so incrementing doesn't allocate.
+ */
+public class LongStatistic extends PrimitiveStatistic<Long> {
+    /**
+     * Creates a new long statistic.
+     *
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     */
+    public LongStatistic(String name, long defaultValue) {
+        this(name, defaultValue, null);
+    }
+
+    /**
+     * Creates a new long statistic with the given comparator for the leaderboard.
+     *
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     */
+    public LongStatistic(String name, long defaultValue, @Nullable Comparator<Long> comparator) {
+        this(StatisticType.LONG, name, defaultValue, comparator);
+    }
+
+    /**
+     * Creates a new long statistic with the given type, i.E. {@link StatisticType#MILLISECONDS}.
+     * The long codec of the type must encode values as the long itself.
+     *
+     * @param type         type of the statistic
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     * @throws IllegalArgumentException if the type has no long codec
+     */
+    public LongStatistic(StatisticType<Long> type, String name, long defaultValue,
+                         @Nullable Comparator<Long> comparator) throws IllegalArgumentException {
+        super(type, name, defaultValue, comparator);
+    }
+
+    /**
+     * Set the value of the statistic for the given UUID.
+     *
+     * @param uuid  the UUID
+     * @param value the new value of the statistic
+     */
+    public void set(UUID uuid, long value) {
+        setBits(uuid, value);
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given player.
+     *
+     * @param player    the player
+     * @param increment the increment
+     */
+    public void incrementBy(Player player, long increment) {
+        incrementBy(player.getUniqueId(), increment);
+    }
+
+    /**
+     * Increment the value of the statistic by the given increment for the given UUID.
+     *
+     * @param uuid      the UUID
+     * @param increment the increment
+     */
+    public void incrementBy(UUID uuid, long increment) {
+        set(uuid, getLong(uuid) + increment);
+    }
+
+    @Override
+    public void incrementBy(UUID uuid, Long increment) {
+        incrementBy(uuid, increment.longValue());
+    }
+
+    /**
+     * Get the value of the statistic for the given UUID or the default value if the UUID does not have a value.
+     *
+     * @param uuid the UUID
+     * @return the value of the statistic
+     */
+    public long getLong(UUID uuid) {
+        return getBits(uuid, getDefaultValue());
+    }
+}
@@ -0,0 +1,185 @@
+package me.clickism.clickeventlib.statistic;
+
+import me.clickism.clickeventlib.serialization.LongCodec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Statistic that stores its values as primitive longs instead of boxed objects.
+ * <p>
+ * Values are encoded with the {@link LongCodec} of the statistic type.
+ * Subclasses provide methods that use primitives directly,
+ * so they don't allocate unless the values have to be ranked because ranks were queried, or are observed by listeners.
+ *
+ * @param <T> boxed type of the statistic
+ */
+public abstract class PrimitiveStatistic<T> extends Statistic<T> {
+    private final LongCodec<T> codec;
+    private final UUIDLongMap values = new UUIDLongMap();
+    private final Map<UUID, T> mapView = new MapView();
+
+    /**
+     * Creates a new primitive statistic.
+     *
+     * @param type         type of the statistic, must have a long codec
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     * @throws IllegalArgumentException if the type has no long codec
+     */
+    protected PrimitiveStatistic(StatisticType<T> type, String name, T defaultValue,
+                                 @Nullable Comparator<T> comparator) throws IllegalArgumentException {
+        super(type, name, defaultValue, comparator);
+        LongCodec<T> codec = type.getLongCodec();
+        if (codec == null) {
+            throw new IllegalArgumentException("Statistic type of '" + name + "' has no long codec");
+        }
+        this.codec = codec;
+    }
+
+    @Override
+    public void set(UUID uuid, T value) {
+        setBits(uuid, codec.encode(value));
+    }
+
+    @Override
+    public void remove(UUID uuid) {
+        T oldValue = isRankingBuilt() || hasListeners() ? getOrNull(uuid) : null;
+        if (isRankingBuilt()) {
+            updateRanking(uuid, oldValue, null);
+        }
+        boolean removed = values.remove(uuid);
+        StatisticJournal<T> journal = getJournal();
+        if (journal != null) {
+            journal.appendRemove(uuid);
+        }
+        if (removed) {
+            markChanged(uuid, oldValue, null);
+        }
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+        clearRanking();
+        StatisticJournal<T> journal = getJournal();
+        if (journal != null) {
+            journal.appendClear();
+        }
+        markCleared();
+    }
+
+    @Override
+    public @Nullable T getOrNull(UUID uuid) {
+        int slot = values.find(uuid);
+        return slot >= 0 ? codec.decode(values.valueAt(slot)) : null;
+    }
+
+    /**
+     * Get an unmodifiable view of the values of the statistic.
+     * Values are boxed when they are accessed.
+     *
+     * @return the map of UUIDs to values
+     */
+    @Override
+    public Map<UUID, T> getMap() {
+        return mapView;
+    }
+
+    /**
+     * Set the encoded value of the given UUID.
+     *
+     * @param uuid UUID
+     * @param bits value encoded with the long codec of the type
+     */
+    protected void setBits(UUID uuid, long bits) {
+        int slot = values.find(uuid);
+        if (slot >= 0 && values.valueAt(slot) == bits) return;
+        T oldValue = null;
+        T newValue = null;
+        // Values are only boxed if they are ranked or observed
+        if (isRankingBuilt() || hasListeners()) {
+            oldValue = slot >= 0 ? codec.decode(values.valueAt(slot)) : null;
+            newValue = codec.decode(bits);
+            updateRanking(uuid, oldValue, newValue);
+        }
+        if (slot >= 0) {
+            values.setValueAt(slot, bits);
+        } else {
+            values.put(uuid, bits);
+        }
+        StatisticJournal<T> journal = getJournal();
+        if (journal != null) {
+            journal.appendSetBits(uuid, bits);
+        }
+        markChanged(uuid, oldValue, newValue);
+    }
+
+    /**
+     * Get the encoded value of the given UUID.
+     *
+     * @param uuid        UUID
+     * @param defaultBits bits to return if the UUID has no value
+     * @return value encoded with the long codec of the type, or the default bits
+     */
+    protected long getBits(UUID uuid, long defaultBits) {
+        int slot = values.find(uuid);
+        return slot >= 0 ? values.valueAt(slot) : defaultBits;
+    }
+
+    private class MapView extends AbstractMap<UUID, T> {
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof UUID uuid && values.find(uuid) >= 0;
+        }
+
+        @Override
+        public T get(Object key) {
+            return key instanceof UUID uuid ? getOrNull(uuid) : null;
+        }
+
+        @Override
+        public @NotNull Set<Entry<UUID, T>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return values.size();
+                }
+
+                @Override
+                public @NotNull Iterator<Entry<UUID, T>> iterator() {
+                    return new Iterator<>() {
+                        private int slot = nextUsed(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < values.capacity();
+                        }
+
+                        @Override
+                        public Entry<UUID, T> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            Entry<UUID, T> entry = Map.entry(values.keyAt(slot), codec.decode(values.valueAt(slot)));
+                            slot = nextUsed(slot + 1);
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+
+        private int nextUsed(int slot) {
+            while (slot < values.capacity() && !values.isUsed(slot)) {
+                slot++;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Index that keeps the values of a statistic ordered by the leaderboard comparator.
+ * <p>
+ * Implemented as a treap keyed by (value, UUID), where every node stores the size of its subtree,
+ * so the rank of an entry can be found in O(log n) and a range of n entries can be visited in O(log n + n).
+ *
+ * @param <T> type of the statistic
+ */
+class RankingIndex<T> {
+    private final Comparator<T> comparator;
+
+    @Nullable
+    private Node<T> root;
+    @Nullable
+    private Node<T> removed;
+    private int seed = 0x2545F491;
+
+    /**
+     * Creates a new empty ranking index.
+     *
+     * @param comparator comparator of the values, the first value in order is ranked first
+     */
+    RankingIndex(Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Update the value of the given UUID.
+     *
+     * @param uuid     UUID
+     * @param oldValue previous value, or null if the UUID had no value
+     * @param newValue new value, or null if the value was removed
+     */
+    void update(UUID uuid, @Nullable T oldValue, @Nullable T newValue) {
+        Node<T> node = null;
+        if (oldValue != null) {
+            removed = null;
+            root = remove(root, oldValue, uuid);
+            node = removed;
+            removed = null;
+        }
+        if (newValue == null) return;
+        if (node == null) {
+            node = new Node<>(uuid, nextPriority());
+        }
+        node.value = newValue;
+        node.left = null;
+        node.right = null;
+        node.size = 1;
+        root = insert(root, node);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return number of entries
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Get the index of the entry with the given UUID and value in the order of the comparator.
+     *
+     * @param uuid  UUID
+     * @param value current value of the UUID
+     * @return index starting from 0, or -1 if the entry is not in the index
+     */
+    int indexOf(UUID uuid, T value) {
+        int index = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int comparison = compare(value, uuid, node);
+            if (comparison == 0) {
+                return index + size(node.left);
+            }
+            if (comparison < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Visit the entries with an index from the given start (inclusive) to the given end (exclusive) in order.
+     *
+     * @param from     start index, inclusive
+     * @param to       end index, exclusive
+     * @param consumer consumer of the entries
+     */
+    void forEachInRange(int from, int to, BiConsumer<UUID, T> consumer) {
+        forEachInRange(root, 0, Math.max(from, 0), Math.min(to, size()), consumer);
+    }
+
+    private void forEachInRange(@Nullable Node<T> node, int offset, int from, int to, BiConsumer<UUID, T> consumer) {
+        if (node == null || from >= to) return;
+        int index = offset + size(node.left);
+        if (from < index) {
+            forEachInRange(node.left, offset, from, to, consumer);
+        }
+        if (from <= index && index < to) {
+            consumer.accept(node.uuid, node.value);
+        }
+        if (index + 1 < to) {
+            forEachInRange(node.right, index + 1, from, to, consumer);
+        }
+    }
+
+    private Node<T> insert(@Nullable Node<T> node, Node<T> inserted) {
+        if (node == null) return inserted;
+        if (compare(inserted.value, inserted.uuid, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        updateSize(node);
+        return node;
+    }
+
+    @Nullable
+    private Node<T> remove(@Nullable Node<T> node, T value, UUID uuid) {
+        if (node == null) return null;
+        int comparison = compare(value, uuid, node);
+        if (comparison == 0) {
+            removed = node;
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, value, uuid);
+        } else {
+            node.right = remove(node.right, value, uuid);
+        }
+        updateSize(node);
+        return node;
+    }
+
+    @Nullable
+    private Node<T> merge(@Nullable Node<T> left, @Nullable Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            updateSize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        updateSize(right);
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateSize(node);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateSize(node);
+        return right;
+    }
+
+    private int compare(T value, UUID uuid, Node<T> node) {
+        int comparison = comparator.compare(value, node.value);
+        return comparison != 0 ? comparison : uuid.compareTo(node.uuid);
+    }
+
+    private int nextPriority() {
+        // Xorshift
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static void updateSize(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static class Node<T> {
+        private final UUID uuid;
+        private final int priority;
+        private T value;
+        private int size = 1;
+        @Nullable
+        private Node<T> left;
+        @Nullable
+        private Node<T> right;
+
+        private Node(UUID uuid, int priority) {
+            this.uuid = uuid;
+            this.priority = priority;
+        }
+    }
+}
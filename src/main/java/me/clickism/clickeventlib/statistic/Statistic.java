@@ -1,12 +1,15 @@
 package me.clickism.clickeventlib.statistic;
 
-import me.clickism.clickeventlib.leaderboard.LeaderboardEntryProvider;
+import me.clickism.clickeventlib.leaderboard.AsyncLeaderboardEntryProvider;
 import me.clickism.subcommandapi.util.Named;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -14,7 +17,10 @@ import java.util.stream.Stream;
  *
  * @param <T> type of the statistic
  */
-public class Statistic<T> implements Named, LeaderboardEntryProvider {
+public class Statistic<T> implements Named, AsyncLeaderboardEntryProvider {
+    // Rebuild the ranking after a batch if the batch changes at least a quarter of the values
+    private static final int RANKING_REBUILD_RATIO = 4;
+
     private final StatisticType<T> type;
     private final String name;
     private final Map<UUID, T> map = new HashMap<>();
@@ -23,6 +29,23 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
 
     @Nullable
     private final Comparator<T> comparator;
+    private final boolean ranked;
+    // Built on the first ranked query, so statistics that are never ranked don't pay for it on every change
+    @Nullable
+    private RankingIndex<T> rankingIndex;
+
+    @Nullable
+    private StatisticJournal<T> journal;
+
+    private final List<StatisticListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong version = new AtomicLong();
+    private int batchDepth = 0;
+    private boolean changedInBatch = false;
+    private boolean rankingDeferred = false;
+    // Changes of the batch being applied, passed to the listeners once the batch is done
+    @Nullable
+    private Map<UUID, StatisticListener.Change<T>> batchChanges;
 
     /**
      * Creates a new statistic with the given type and identifier.
@@ -38,7 +61,8 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
 
     /**
      * Creates a new statistic with the given type, identifier, default value, and comparator.
-     * The comparator is used for the leaderboard.
+     * The comparator is used for the leaderboard, and the values are kept ordered by it
+     * once the leaderboard entries or ranks are requested for the first time.
      *
      * @param type         type of the statistic
      * @param name         identifier of the statistic
@@ -46,10 +70,25 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
      * @param comparator   comparator for the leaderboard
      */
     public Statistic(StatisticType<T> type, String name, T defaultValue, @Nullable Comparator<T> comparator) {
+        this(type, name, defaultValue, comparator, true);
+    }
+
+    /**
+     * Creates a new statistic with the given type, identifier, default value, and comparator.
+     *
+     * @param type         type of the statistic
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     * @param ranked       whether to keep the values ordered by the comparator once they are first queried,
+     *                     otherwise they are sorted whenever the leaderboard entries are requested
+     */
+    Statistic(StatisticType<T> type, String name, T defaultValue, @Nullable Comparator<T> comparator, boolean ranked) {
         this.type = type;
         this.name = name;
         this.defaultValue = defaultValue;
         this.comparator = comparator;
+        this.ranked = ranked && comparator != null;
     }
 
     /**
@@ -69,7 +108,14 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
      * @param value the new value of the statistic
      */
     public void set(UUID uuid, T value) {
-        map.put(uuid, value);
+        T oldValue = map.put(uuid, value);
+        updateRanking(uuid, oldValue, value);
+        if (journal != null) {
+            journal.appendSet(uuid, value);
+        }
+        if (!Objects.equals(oldValue, value)) {
+            markChanged(uuid, oldValue, value);
+        }
     }
 
     /**
@@ -90,7 +136,7 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
      */
     public void incrementBy(UUID uuid, T increment) {
         T value = getOrDefault(uuid);
-        map.put(uuid, type.sum(value, increment));
+        set(uuid, type.sum(value, increment));
     }
 
     /**
@@ -150,7 +196,14 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
      * @param uuid the UUID
      */
     public void remove(UUID uuid) {
-        map.remove(uuid);
+        T oldValue = map.remove(uuid);
+        updateRanking(uuid, oldValue, null);
+        if (journal != null) {
+            journal.appendRemove(uuid);
+        }
+        if (oldValue != null) {
+            markChanged(uuid, oldValue, null);
+        }
     }
 
     /**
@@ -158,6 +211,243 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
      */
     public void clear() {
         map.clear();
+        clearRanking();
+        if (journal != null) {
+            journal.appendClear();
+        }
+        markCleared();
+    }
+
+    /**
+     * Increment the values of the given UUIDs by the given increments in one pass,
+     * i.E. to pay out the rewards of a round.
+     * <p>
+     * The version of the statistic only changes once for the whole batch,
+     * and listeners are notified once with {@link StatisticListener#onBatchChange(Map)}.
+     * If the batch changes a large part of the values, the ranking is rebuilt once after all increments
+     * instead of being updated for every increment.
+     * Batches must be applied on the main thread.
+     *
+     * @param increments map of UUIDs to increments
+     */
+    public void applyAll(Map<UUID, T> increments) {
+        if (increments.isEmpty()) return;
+        boolean deferRanking = isRankingBuilt() && batchDepth == 0
+                               && increments.size() * RANKING_REBUILD_RATIO >= getMap().size();
+        batchDepth++;
+        rankingDeferred |= deferRanking;
+        try {
+            increments.forEach(this::incrementBy);
+        } finally {
+            if (deferRanking) {
+                rankingDeferred = false;
+                rebuildRanking();
+            }
+            if (--batchDepth == 0) {
+                if (changedInBatch) {
+                    changedInBatch = false;
+                    version.incrementAndGet();
+                }
+                notifyBatchChanges();
+            }
+        }
+    }
+
+    private void notifyBatchChanges() {
+        Map<UUID, StatisticListener.Change<T>> changes = batchChanges;
+        if (changes == null) return;
+        batchChanges = null;
+        // Changes that end at the value they started from are dropped
+        changes.values().removeIf(change -> Objects.equals(change.oldValue(), change.newValue()));
+        if (changes.isEmpty()) return;
+        Map<UUID, StatisticListener.Change<T>> view = Collections.unmodifiableMap(changes);
+        for (StatisticListener<T> listener : listeners) {
+            listener.onBatchChange(view);
+        }
+    }
+
+    /**
+     * Create a new batch that collects increments and applies them with {@link #applyAll(Map)}.
+     *
+     * @return a new batch
+     */
+    public StatisticBatch<T> batch() {
+        return new StatisticBatch<>(this);
+    }
+
+    /**
+     * Get the version of the statistic, which changes whenever a value changes.
+     * Consumers can compare it to the version they last saw to skip work if nothing changed.
+     *
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Add a listener that is called whenever a value of the statistic changes.
+     * Listeners are called on the thread that changed the value.
+     *
+     * @param listener the listener
+     */
+    public void addListener(StatisticListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove the given listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(StatisticListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Check whether the statistic has listeners, so old values only have to be looked up if they are observed.
+     *
+     * @return true if the statistic has listeners
+     */
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Mark the value of the given UUID as changed, notifying the listeners
+     * and changing the version unless a batch is being applied.
+     * Changes of a batch are collected and passed to the listeners once the batch is done.
+     * The values are only used if the statistic has listeners.
+     *
+     * @param uuid     the UUID
+     * @param oldValue the previous value, or null if the UUID had no value
+     * @param newValue the new value, or null if the value was removed
+     */
+    void markChanged(UUID uuid, @Nullable T oldValue, @Nullable T newValue) {
+        incrementVersion();
+        if (listeners.isEmpty()) return;
+        if (batchDepth > 0) {
+            if (batchChanges == null) {
+                batchChanges = new LinkedHashMap<>();
+            }
+            StatisticListener.Change<T> change = batchChanges.get(uuid);
+            T firstOldValue = change != null ? change.oldValue() : oldValue;
+            batchChanges.put(uuid, new StatisticListener.Change<>(firstOldValue, newValue));
+            return;
+        }
+        for (StatisticListener<T> listener : listeners) {
+            listener.onChange(uuid, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Mark all values as removed, notifying the listeners and changing the version.
+     */
+    void markCleared() {
+        incrementVersion();
+        // Changes collected before the clear are overridden by it
+        batchChanges = null;
+        listeners.forEach(StatisticListener::onClear);
+    }
+
+    private void incrementVersion() {
+        if (batchDepth > 0) {
+            changedInBatch = true;
+            return;
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Rebuild the ranking from the current values.
+     */
+    private void rebuildRanking() {
+        clearRanking();
+        getMap().forEach((uuid, value) -> updateRanking(uuid, null, value));
+    }
+
+    /**
+     * Check whether ranked queries use an ordered index, which is the case if the statistic has a comparator.
+     * The index is only built and maintained after the first ranked query.
+     *
+     * @return true if the values are ordered
+     */
+    @Override
+    public boolean isRanked() {
+        return ranked;
+    }
+
+    /**
+     * Check whether the ranking index was built and has to be updated on every change.
+     *
+     * @return true if the ranking index was built
+     */
+    boolean isRankingBuilt() {
+        return rankingIndex != null;
+    }
+
+    /**
+     * Get the ranking index, building it from the current values on the first call.
+     *
+     * @return the ranking index, or null if the statistic isn't ranked
+     */
+    @Nullable
+    private RankingIndex<T> getRankingIndex() {
+        if (rankingIndex != null || !ranked || comparator == null) return rankingIndex;
+        Map<UUID, T> values = getMap();
+        RankingIndex<T> index = new RankingIndex<>(comparator);
+        values.forEach((uuid, value) -> index.update(uuid, null, value));
+        rankingIndex = index;
+        return index;
+    }
+
+    /**
+     * Update the position of the given UUID in the ranking.
+     *
+     * @param uuid     the UUID
+     * @param oldValue the previous value, or null if the UUID had no value
+     * @param newValue the new value, or null if the value was removed
+     */
+    void updateRanking(UUID uuid, @Nullable T oldValue, @Nullable T newValue) {
+        if (rankingIndex == null || rankingDeferred) return;
+        rankingIndex.update(uuid, oldValue, newValue);
+    }
+
+    /**
+     * Remove all UUIDs from the ranking.
+     */
+    void clearRanking() {
+        if (rankingIndex == null) return;
+        rankingIndex.clear();
+    }
+
+    /**
+     * Check whether changes of the statistic can be appended to a journal.
+     *
+     * @return true if the statistic can be journaled
+     */
+    boolean isJournalable() {
+        return true;
+    }
+
+    /**
+     * Set the journal that changes of the statistic are appended to.
+     *
+     * @param journal journal, or null to stop journaling
+     */
+    void setJournal(@Nullable StatisticJournal<T> journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Get the journal that changes of the statistic are appended to.
+     *
+     * @return journal, or null if the statistic isn't journaled
+     */
+    @Nullable
+    StatisticJournal<T> getJournal() {
+        return journal;
     }
 
     /**
@@ -207,6 +497,7 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
 
     /**
      * Get the map of UUIDs to values.
+     * The map must not be modified, use the methods of the statistic instead.
      *
      * @return the map of UUIDs to values
      */
@@ -214,6 +505,15 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
         return map;
     }
 
+    /**
+     * Get the default value of the statistic.
+     *
+     * @return the default value
+     */
+    protected T getDefaultValue() {
+        return defaultValue;
+    }
+
     /**
      * Get the type of the statistic.
      *
@@ -230,12 +530,129 @@ public class Statistic<T> implements Named, LeaderboardEntryProvider {
 
     @Override
     public @NotNull List<Map.Entry<UUID, String>> getLeaderboardEntries() {
-        Stream<Map.Entry<UUID, T>> stream = map.entrySet().stream()
+        return getLeaderboardEntries(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the leaderboard entries from the given rank to the given rank, both inclusive.
+     * If the statistic has a comparator, only the entries in the range are visited.
+     *
+     * @param fromRank first rank, inclusive
+     * @param toRank   last rank, inclusive
+     * @return the leaderboard entries in the range
+     */
+    @Override
+    public @NotNull List<Map.Entry<UUID, String>> getRange(int fromRank, int toRank) {
+        RankingIndex<T> index = getRankingIndex();
+        if (index == null) {
+            return AsyncLeaderboardEntryProvider.super.getRange(fromRank, toRank);
+        }
+        return getRankedEntries(index, Math.max(fromRank - 1, 0), toRank);
+    }
+
+    /**
+     * Get the rank of the given UUID, starting from 1.
+     * If the statistic has a comparator, this takes O(log n).
+     * UUIDs with equal values are ordered by UUID.
+     *
+     * @param uuid the UUID
+     * @return the rank, or -1 if the UUID has no value
+     */
+    @Override
+    public int getRank(UUID uuid) {
+        RankingIndex<T> index = getRankingIndex();
+        if (index == null) {
+            return AsyncLeaderboardEntryProvider.super.getRank(uuid);
+        }
+        T value = getOrNull(uuid);
+        if (value == null) return -1;
+        int position = index.indexOf(uuid, value);
+        return position >= 0 ? position + 1 : -1;
+    }
+
+    /**
+     * Get the percentage of UUIDs with a value that the given UUID is ranked at or above,
+     * i.E. 100 for the first UUID.
+     * If the statistic has a comparator, this takes O(log n).
+     *
+     * @param uuid the UUID
+     * @return the percentile from 0 to 100, or -1 if the UUID has no value
+     */
+    @Override
+    public double getPercentile(UUID uuid) {
+        RankingIndex<T> index = getRankingIndex();
+        if (index == null) {
+            return AsyncLeaderboardEntryProvider.super.getPercentile(uuid);
+        }
+        int rank = getRank(uuid);
+        if (rank < 0) return -1;
+        int size = index.size();
+        return (size - rank + 1) * 100.0 / size;
+    }
+
+    /**
+     * Get the first leaderboard entries.
+     * If the statistic has a comparator, the entries are read from the ranking in order,
+     * so only the returned entries are visited and formatted.
+     *
+     * @param limit maximum number of entries
+     * @return the leaderboard entries
+     */
+    @Override
+    public @NotNull List<Map.Entry<UUID, String>> getLeaderboardEntries(int limit) {
+        RankingIndex<T> index = getRankingIndex();
+        if (index != null) {
+            return getRankedEntries(index, 0, limit);
+        }
+        return rankEntries(getMap().entrySet(), limit);
+    }
+
+    /**
+     * Take a snapshot of the values and get a task that ranks and formats the first entries of the snapshot.
+     * If the statistic has a comparator, the entries are read from the ranking right away,
+     * since that only visits the returned entries.
+     *
+     * @param limit maximum number of entries
+     * @return task that computes the first leaderboard entries
+     */
+    @Override
+    public @NotNull Supplier<List<Map.Entry<UUID, String>>> snapshotEntries(int limit) {
+        if (ranked) {
+            List<Map.Entry<UUID, String>> entries = getLeaderboardEntries(limit);
+            return () -> entries;
+        }
+        // Copy the entries, since entries of a map can change with its values
+        List<Map.Entry<UUID, T>> snapshot = new ArrayList<>(getMap().size());
+        getMap().forEach((uuid, value) -> {
+            if (value != null) {
+                snapshot.add(Map.entry(uuid, value));
+            }
+        });
+        return () -> rankEntries(snapshot, limit);
+    }
+
+    /**
+     * Sort the given entries by the comparator and format the first entries.
+     *
+     * @param entries entries to rank
+     * @param limit   maximum number of entries
+     * @return the ranked leaderboard entries
+     */
+    List<Map.Entry<UUID, String>> rankEntries(Collection<Map.Entry<UUID, T>> entries, int limit) {
+        Stream<Map.Entry<UUID, T>> stream = entries.stream()
                 .filter(entry -> entry.getValue() != null);
         if (comparator != null) {
             stream = stream.sorted(Map.Entry.comparingByValue(comparator));
         }
-        return stream.map(entry -> Map.entry(entry.getKey(), type.format(entry.getValue())))
+        return stream.limit(limit)
+                .map(entry -> Map.entry(entry.getKey(), type.format(entry.getValue())))
                 .toList();
     }
+
+    private List<Map.Entry<UUID, String>> getRankedEntries(RankingIndex<T> index, int from, int to) {
+        if (from >= to) return List.of();
+        List<Map.Entry<UUID, String>> entries = new ArrayList<>(Math.max(0, Math.min(to, index.size()) - from));
+        index.forEachInRange(from, to, (uuid, value) -> entries.add(Map.entry(uuid, type.format(value))));
+        return entries;
+    }
 }
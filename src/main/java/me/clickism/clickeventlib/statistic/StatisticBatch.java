@@ -0,0 +1,68 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects increments for a statistic and applies them in one pass with {@link Statistic#applyAll(Map)}.
+ * <p>
+ * Increments for the same UUID are summed up before they are applied.
+ *
+ * @param <T> type of the statistic
+ */
+public class StatisticBatch<T> {
+    private final Statistic<T> statistic;
+    private final Map<UUID, T> increments = new HashMap<>();
+
+    /**
+     * Creates a new empty batch for the given statistic.
+     *
+     * @param statistic statistic to apply the increments to
+     */
+    public StatisticBatch(Statistic<T> statistic) {
+        this.statistic = statistic;
+    }
+
+    /**
+     * Add an increment for the given player.
+     *
+     * @param player    the player
+     * @param increment the increment
+     * @return this batch
+     */
+    public StatisticBatch<T> incrementBy(Player player, T increment) {
+        return incrementBy(player.getUniqueId(), increment);
+    }
+
+    /**
+     * Add an increment for the given UUID.
+     *
+     * @param uuid      the UUID
+     * @param increment the increment
+     * @return this batch
+     */
+    public StatisticBatch<T> incrementBy(UUID uuid, T increment) {
+        increments.merge(uuid, increment, statistic.getType()::sum);
+        return this;
+    }
+
+    /**
+     * Get the collected increments.
+     *
+     * @return map of UUIDs to increments
+     */
+    public Map<UUID, T> getIncrements() {
+        return increments;
+    }
+
+    /**
+     * Apply the collected increments to the statistic and clear the batch.
+     */
+    public void apply() {
+        statistic.applyAll(increments);
+        increments.clear();
+    }
+}
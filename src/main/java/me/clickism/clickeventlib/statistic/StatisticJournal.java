@@ -0,0 +1,225 @@
+package me.clickism.clickeventlib.statistic;
+
+import me.clickism.clickeventlib.serialization.LongCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Memory-mapped, append-only journal of the changes of a statistic.
+ * <p>
+ * Every change is appended as a fixed-size record that holds the new value, not the difference,
+ * so replaying records that are already contained in the snapshot doesn't change the result.
+ * The header stores the range of live records, so compaction only has to move the start of the range.
+ *
+ * @param <T> type of the statistic
+ */
+class StatisticJournal<T> {
+    private static final int MAGIC = 0x43454C4A; // "CELJ"
+    private static final int HEADER_SIZE = 16;
+    private static final int START_OFFSET = 4;
+    private static final int END_OFFSET = 8;
+    // op (1) + UUID (16) + value (8)
+    private static final int RECORD_SIZE = 25;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte OP_SET = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private final LongCodec<T> codec;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int start;
+    private int end;
+    // Number of records the live range was moved back by, so positions stay valid after moving
+    private long shift = 0;
+
+    /**
+     * Opens the journal in the given file, creating it if it doesn't exist.
+     *
+     * @param file  journal file
+     * @param codec codec of the values
+     * @throws IOException if an I/O error occurs or the file is not a journal
+     */
+    StatisticJournal(File file, LongCodec<T> codec) throws IOException {
+        this.codec = codec;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existingCapacity = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        map((int) Math.max(existingCapacity, INITIAL_CAPACITY));
+        if (existingCapacity <= 0) {
+            buffer.putInt(0, MAGIC);
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a statistic journal: " + file.getPath());
+        }
+        start = buffer.getInt(START_OFFSET);
+        end = buffer.getInt(END_OFFSET);
+        if (start < 0 || start > end || end > capacity) {
+            channel.close();
+            throw new IOException("Corrupted statistic journal: " + file.getPath());
+        }
+    }
+
+    /**
+     * Applies the live records to the given statistic.
+     * Must be called before the journal is attached to the statistic.
+     *
+     * @param statistic statistic to apply the records to
+     */
+    void replay(Statistic<T> statistic) {
+        for (int i = start; i < end; i++) {
+            int offset = getOffset(i);
+            byte op = buffer.get(offset);
+            if (op == OP_CLEAR) {
+                statistic.clear();
+                continue;
+            }
+            UUID uuid = new UUID(buffer.getLong(offset + 1), buffer.getLong(offset + 9));
+            if (op == OP_SET) {
+                statistic.set(uuid, codec.decode(buffer.getLong(offset + 17)));
+            } else if (op == OP_REMOVE) {
+                statistic.remove(uuid);
+            }
+        }
+    }
+
+    /**
+     * Appends a record that sets the value of the given UUID.
+     *
+     * @param uuid  UUID
+     * @param value new value
+     */
+    void appendSet(UUID uuid, T value) {
+        appendSetBits(uuid, codec.encode(value));
+    }
+
+    /**
+     * Appends a record that sets the value of the given UUID to the value encoded by the given bits.
+     *
+     * @param uuid UUID
+     * @param bits new value, encoded with the codec of the journal
+     */
+    void appendSetBits(UUID uuid, long bits) {
+        append(OP_SET, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), bits);
+    }
+
+    /**
+     * Appends a record that removes the value of the given UUID.
+     *
+     * @param uuid UUID
+     */
+    void appendRemove(UUID uuid) {
+        append(OP_REMOVE, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), 0);
+    }
+
+    /**
+     * Appends a record that removes all values.
+     */
+    void appendClear() {
+        append(OP_CLEAR, 0, 0, 0);
+    }
+
+    private void append(byte op, long mostSigBits, long leastSigBits, long value) {
+        if (end == capacity) {
+            makeRoom();
+        }
+        int offset = getOffset(end);
+        buffer.put(offset, op);
+        buffer.putLong(offset + 1, mostSigBits);
+        buffer.putLong(offset + 9, leastSigBits);
+        buffer.putLong(offset + 17, value);
+        // The record is only live after it was written completely
+        buffer.putInt(END_OFFSET, ++end);
+    }
+
+    /**
+     * Moves the live records to the start of the file if they don't overlap their new position,
+     * otherwise grows the file.
+     */
+    private void makeRoom() {
+        int size = end - start;
+        if (size > start) {
+            try {
+                map(capacity * 2);
+            } catch (IOException exception) {
+                throw new IllegalStateException("Statistic journal couldn't be grown", exception);
+            }
+            return;
+        }
+        // The old range stays live until the header is updated, so a crash while copying loses nothing
+        byte[] records = new byte[size * RECORD_SIZE];
+        buffer.get(getOffset(start), records);
+        buffer.put(HEADER_SIZE, records);
+        shift += start;
+        buffer.putInt(START_OFFSET, start = 0);
+        buffer.putInt(END_OFFSET, end = size);
+    }
+
+    /**
+     * Get the position after the last record, used to discard the records before it after a snapshot.
+     *
+     * @return end position
+     */
+    long getPosition() {
+        return shift + end;
+    }
+
+    /**
+     * Get the number of live records.
+     *
+     * @return number of live records
+     */
+    int size() {
+        return end - start;
+    }
+
+    /**
+     * Discards the records before the given position.
+     * Should be called after a snapshot taken at the given position was written.
+     * Records appended after the position are kept.
+     *
+     * @param position position returned by {@link #getPosition()} when the snapshot was taken
+     */
+    void discardBefore(long position) {
+        long index = position - shift;
+        if (index <= start) return;
+        start = (int) Math.min(index, end);
+        buffer.putInt(START_OFFSET, start);
+    }
+
+    /**
+     * Writes the changes of the mapped file to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Writes the changes to the storage device and closes the file.
+     * Must not be used afterward.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void map(int capacity) throws IOException {
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        this.capacity = capacity;
+    }
+
+    private static int getOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,50 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Listener that is called when a value of a statistic changes.
+ *
+ * @param <T> type of the statistic
+ */
+@FunctionalInterface
+public interface StatisticListener<T> {
+    /**
+     * Called when the value of the given UUID changed.
+     * Not called if the value was set to an equal value.
+     *
+     * @param uuid     the UUID
+     * @param oldValue the previous value, or null if the UUID had no value
+     * @param newValue the new value, or null if the value was removed
+     */
+    void onChange(UUID uuid, @Nullable T oldValue, @Nullable T newValue);
+
+    /**
+     * Called once after a batch was applied, with the changes of the batch coalesced by UUID.
+     * By default, {@link #onChange(UUID, Object, Object)} is called for every change.
+     *
+     * @param changes unmodifiable map of UUIDs to their changes
+     */
+    default void onBatchChange(Map<UUID, Change<T>> changes) {
+        changes.forEach((uuid, change) -> onChange(uuid, change.oldValue(), change.newValue()));
+    }
+
+    /**
+     * Called when all values of the statistic were removed.
+     */
+    default void onClear() {
+    }
+
+    /**
+     * Change of the value of a UUID.
+     *
+     * @param oldValue the previous value, or null if the UUID had no value
+     * @param newValue the new value, or null if the value was removed
+     * @param <T>      type of the statistic
+     */
+    record Change<T>(@Nullable T oldValue, @Nullable T newValue) {
+    }
+}
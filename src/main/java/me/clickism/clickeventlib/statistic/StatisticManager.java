@@ -1,24 +1,59 @@
 package me.clickism.clickeventlib.statistic;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import me.clickism.clickeventlib.ClickEventLib;
 import me.clickism.clickeventlib.annotations.AutoRegistered;
 import me.clickism.clickeventlib.annotations.RegistryType;
-import me.clickism.clickeventlib.serialization.AutoSaved;
-import me.clickism.clickeventlib.serialization.AutoSaver;
-import me.clickism.clickeventlib.serialization.JSONDataManager;
+import me.clickism.clickeventlib.serialization.*;
 import me.clickism.subcommandapi.util.NamedCollection;
+import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.UUID;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Statistic manager.
+ * <p>
+ * Statistics are stored either as JSON or in a compact binary format, see {@link StorageFormat}.
+ * If the binary format is used and the binary file doesn't exist yet,
+ * statistics are migrated once from the JSON file with the given file name.
+ * <p>
+ * In journaled mode, every change of a statistic is appended to a memory-mapped journal,
+ * and saving only flushes the journals. The journals are compacted into a snapshot
+ * once they hold {@link #COMPACTION_THRESHOLD} records, and replayed on top of the snapshot when loading.
+ * Statistics whose type has no {@link LongCodec} can't be journaled and are saved as a snapshot every time.
  */
 public class StatisticManager implements AutoSaved {
+    /**
+     * Number of journal records after which the journals are compacted into a snapshot.
+     */
+    public static final int COMPACTION_THRESHOLD = 65536;
+
+    private static final String BINARY_EXTENSION = ".dat";
+    private static final String JOURNAL_DIRECTORY_SUFFIX = "-journal";
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    private final JavaPlugin plugin;
+
+    /**
+     * JSON data manager, or the data manager to migrate from if the binary format is used.
+     */
+    @Nullable
     private final JSONDataManager dataManager;
+    @Nullable
+    private final BinaryDataManager binaryDataManager;
+    /**
+     * Directory of the journals, or null if journaling is disabled.
+     */
+    @Nullable
+    private final File journalDirectory;
+    // Set on plugin disable, compactions that finish afterward must not touch the closed journals
+    private volatile boolean closed = false;
 
     private final NamedCollection<Statistic<?>> statistics = new NamedCollection<>(new ArrayList<>());
 
@@ -33,9 +68,98 @@ public class StatisticManager implements AutoSaved {
      */
     @AutoRegistered(type = RegistryType.SAVE_ON_DISABLE)
     public StatisticManager(JavaPlugin plugin, AutoSaver autoSaver, int saveInterval, String fileName) throws IOException {
+        this(plugin, autoSaver, saveInterval, fileName, StorageFormat.JSON);
+    }
+
+    /**
+     * Create a new statistic manager that stores the statistics in the given format.
+     * <p>
+     * The binary format is stored in a file with the same name as the given file name,
+     * but with the ".dat" extension, i.E: "statistics.json" is stored in "statistics.dat".
+     *
+     * @param plugin        plugin
+     * @param autoSaver     auto saver to register save on disable with
+     * @param saveInterval  save interval in seconds
+     * @param fileName      file name of the JSON file
+     * @param storageFormat format to store the statistics in
+     * @throws IOException if an I/O error occurs
+     */
+    @AutoRegistered(type = RegistryType.SAVE_ON_DISABLE)
+    public StatisticManager(JavaPlugin plugin, AutoSaver autoSaver, int saveInterval, String fileName,
+                            StorageFormat storageFormat) throws IOException {
+        this(plugin, autoSaver, saveInterval, fileName, storageFormat, false);
+    }
+
+    /**
+     * Create a new statistic manager that stores the statistics in the given format,
+     * optionally journaling every change.
+     * <p>
+     * The journals are stored in a directory with the same name as the given file name,
+     * but with the "-journal" suffix instead of the extension, i.E: "statistics-journal".
+     *
+     * @param plugin        plugin
+     * @param autoSaver     auto saver to register save on disable with
+     * @param saveInterval  save interval in seconds
+     * @param fileName      file name of the JSON file
+     * @param storageFormat format to store the snapshot of the statistics in
+     * @param journaled     whether to journal every change
+     * @throws IOException if an I/O error occurs
+     */
+    @AutoRegistered(type = RegistryType.SAVE_ON_DISABLE)
+    public StatisticManager(JavaPlugin plugin, AutoSaver autoSaver, int saveInterval, String fileName,
+                            StorageFormat storageFormat, boolean journaled) throws IOException {
+        this.plugin = plugin;
+        if (journaled) {
+            this.journalDirectory = new File(plugin.getDataFolder(), getBaseName(fileName) + JOURNAL_DIRECTORY_SUFFIX);
+            if (!journalDirectory.isDirectory() && !journalDirectory.mkdirs()) {
+                throw new IOException("Couldn't create journal directory: " + journalDirectory.getPath());
+            }
+        } else {
+            this.journalDirectory = null;
+        }
         autoSaver.registerSaveOnDisable(this);
+        autoSaver.registerCloseOnDisable(this::close);
         autoSaver.registerSaveOnInterval(this, saveInterval);
-        this.dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::evictExpired, 20, 20);
+        if (storageFormat == StorageFormat.JSON) {
+            this.binaryDataManager = null;
+            this.dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
+            return;
+        }
+        this.binaryDataManager = new BinaryDataManager(plugin, plugin.getDataFolder(), getBinaryFileName(fileName));
+        if (!binaryDataManager.exists() && new File(plugin.getDataFolder(), fileName).exists()) {
+            plugin.getLogger().info("Migrating statistics from \"" + fileName + "\" to the binary format.");
+            this.dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
+        } else {
+            this.dataManager = null;
+        }
+    }
+
+    /**
+     * Evict the expired buckets of the windowed statistics, so reading them has no side effects.
+     */
+    private void evictExpired() {
+        for (Statistic<?> statistic : statistics) {
+            if (statistic instanceof WindowedStatistic<?> windowedStatistic) {
+                windowedStatistic.evictExpired();
+            }
+        }
+    }
+
+    private void checkStorable(Statistic<?> statistic) throws IllegalArgumentException {
+        if (binaryDataManager != null && statistic.getType().getCodec() == null) {
+            throw new IllegalArgumentException("Statistic '" + statistic.getName() +
+                                               "' has no binary codec and can't be stored in the binary format");
+        }
+    }
+
+    private static String getBinaryFileName(String fileName) {
+        return getBaseName(fileName) + BINARY_EXTENSION;
+    }
+
+    private static String getBaseName(String fileName) {
+        int index = fileName.lastIndexOf('.');
+        return index > 0 ? fileName.substring(0, index) : fileName;
     }
 
     /**
@@ -44,13 +168,54 @@ public class StatisticManager implements AutoSaved {
      * @param statistic statistic to register
      * @param <T>       type of the statistic's value
      * @return the registered statistic
+     * @throws IllegalArgumentException if the statistics are stored in the binary format
+     *                                  and the type of the statistic has no binary codec
      */
-    public <T extends Comparable<T>> Statistic<T> register(Statistic<T> statistic) {
+    public <T extends Comparable<T>> Statistic<T> register(Statistic<T> statistic) throws IllegalArgumentException {
+        checkStorable(statistic);
         statistics.add(statistic);
-        load(statistic);
+        load(List.of(statistic));
+        if (journalDirectory != null) {
+            openJournal(statistic, journalDirectory);
+        }
         return statistic;
     }
 
+    /**
+     * Register multiple statistics, loading them in a single pass over the data file.
+     *
+     * @param statistics statistics to register
+     * @throws IllegalArgumentException if the statistics are stored in the binary format
+     *                                  and the type of a statistic has no binary codec
+     */
+    public void registerAll(Statistic<?>... statistics) throws IllegalArgumentException {
+        List<Statistic<?>> list = List.of(statistics);
+        list.forEach(this::checkStorable);
+        this.statistics.addAll(list);
+        load(list);
+        if (journalDirectory != null) {
+            list.forEach(statistic -> openJournal(statistic, journalDirectory));
+        }
+    }
+
+    private <T> void openJournal(Statistic<T> statistic, File journalDirectory) {
+        LongCodec<T> codec = statistic.getType().getLongCodec();
+        if (codec == null || !statistic.isJournalable()) {
+            ClickEventLib.LOGGER.warning("Statistic '" + statistic.getName() + "' can't be journaled, " +
+                                         "it will be saved as a snapshot instead.");
+            return;
+        }
+        File file = new File(journalDirectory, statistic.getName() + JOURNAL_EXTENSION);
+        try {
+            StatisticJournal<T> journal = new StatisticJournal<>(file, codec);
+            journal.replay(statistic);
+            statistic.setJournal(journal);
+        } catch (IOException exception) {
+            ClickEventLib.LOGGER.severe("Failed to open journal of statistic '" + statistic.getName() + "', " +
+                                        "it will be saved as a snapshot instead: " + exception.getMessage());
+        }
+    }
+
     /**
      * Get the collection of all statistics.
      *
@@ -60,30 +225,197 @@ public class StatisticManager implements AutoSaved {
         return statistics;
     }
 
+    /**
+     * Save the statistics.
+     * <p>
+     * In journaled mode, only the journals are flushed, unless they have to be compacted
+     * or a statistic isn't journaled.
+     */
     @Override
     public void save() {
-        JsonObject json = new JsonObject();
+        if (journalDirectory == null) {
+            saveSnapshot();
+            return;
+        }
+        boolean snapshotNeeded = false;
+        int records = 0;
         for (Statistic<?> statistic : statistics) {
-            json.add(statistic.getName(), toJson(statistic));
+            StatisticJournal<?> journal = statistic.getJournal();
+            if (journal == null) {
+                snapshotNeeded = true;
+                continue;
+            }
+            journal.force();
+            records += journal.size();
+        }
+        if (snapshotNeeded || records >= COMPACTION_THRESHOLD) {
+            compact();
         }
-        dataManager.save(json);
     }
 
-    private JsonObject toJson(Statistic<?> statistic) {
-        JsonObject json = new JsonObject();
-        json.add("players", JSONDataManager.GSON.toJsonTree(statistic.getMap(), Map.class));
-        return json;
+    /**
+     * Close the journals of the statistics. Called on plugin disable after the final save.
+     * Changes made afterward are only saved with the next snapshot.
+     */
+    public void close() {
+        closed = true;
+        for (Statistic<?> statistic : statistics) {
+            StatisticJournal<?> journal = statistic.getJournal();
+            if (journal == null) continue;
+            statistic.setJournal(null);
+            try {
+                journal.close();
+            } catch (IOException exception) {
+                ClickEventLib.LOGGER.severe("Failed to close journal of statistic '" + statistic.getName() + "': " +
+                                            exception.getMessage());
+            }
+        }
     }
 
-    private <T extends Comparable<T>> void load(Statistic<T> statistic) {
-        JsonObject root = dataManager.getRoot();
-        String id = statistic.getName();
-        if (!root.has(id)) return;
-        JsonObject playersNode = root.getAsJsonObject(id).getAsJsonObject("players");
-        playersNode.keySet().forEach(key -> {
-            UUID uuid = UUID.fromString(key);
-            String value = playersNode.get(key).getAsString();
-            statistic.parseAndSet(uuid, value);
+    /**
+     * Save a snapshot of the statistics and discard the journal records that are contained in it.
+     * Records appended while the snapshot is written are kept.
+     */
+    public void compact() {
+        Map<StatisticJournal<?>, Long> positions = new HashMap<>();
+        for (Statistic<?> statistic : statistics) {
+            StatisticJournal<?> journal = statistic.getJournal();
+            if (journal != null) {
+                positions.put(journal, journal.getPosition());
+            }
+        }
+        saveSnapshot().whenComplete((result, exception) -> {
+            // Journals are only modified on the main thread, and not at all once they are closed
+            if (exception != null || positions.isEmpty() || closed) return;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (closed) return;
+                positions.forEach(StatisticJournal::discardBefore);
+            });
         });
     }
+
+    private CompletableFuture<Void> saveSnapshot() {
+        if (binaryDataManager != null) {
+            return saveBinary(binaryDataManager);
+        }
+        if (dataManager == null) return CompletableFuture.completedFuture(null);
+        // Values are immutable, so a shallow copy of the maps is enough to write them on the I/O thread
+        Map<String, Map<UUID, ?>> snapshot = new LinkedHashMap<>();
+        for (Statistic<?> statistic : statistics) {
+            snapshot.put(statistic.getName(), new HashMap<>(statistic.getMap()));
+        }
+        return dataManager.saveStreamingAsync(writer -> writeJson(writer, snapshot));
+    }
+
+    private static void writeJson(JsonWriter writer, Map<String, Map<UUID, ?>> snapshot) throws IOException {
+        writer.beginObject();
+        for (Map.Entry<String, Map<UUID, ?>> statistic : snapshot.entrySet()) {
+            writer.name(statistic.getKey()).beginObject();
+            writer.name("players").beginObject();
+            for (Map.Entry<UUID, ?> entry : statistic.getValue().entrySet()) {
+                Object value = entry.getValue();
+                if (value == null) continue;
+                writer.name(entry.getKey().toString());
+                JSONDataManager.GSON.toJson(value, value.getClass(), writer);
+            }
+            writer.endObject();
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    private CompletableFuture<Void> saveBinary(BinaryDataManager binaryDataManager) {
+        // Sections of statistics that weren't registered yet are kept, their content is never modified
+        Map<String, byte[]> sections = new HashMap<>(binaryDataManager.getUnreadSections());
+        for (Statistic<?> statistic : statistics) {
+            try {
+                sections.put(statistic.getName(), toBytes(statistic));
+            } catch (IOException exception) {
+                ClickEventLib.LOGGER.severe("Failed to write statistic '" + statistic.getName() + "': " + exception.getMessage());
+            }
+        }
+        return binaryDataManager.saveAsync(sections);
+    }
+
+    private <T> byte[] toBytes(Statistic<T> statistic) throws IOException {
+        BinaryCodec<T> codec = statistic.getType().getCodec();
+        Map<UUID, T> map = statistic.getMap();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + map.size() * 24);
+        DataOutputStream out = new DataOutputStream(bytes);
+        // The map may be modified concurrently, so the count is written after iterating
+        out.writeInt(0);
+        int count = 0;
+        for (Map.Entry<UUID, T> entry : map.entrySet()) {
+            BinaryDataManager.writeUUID(out, entry.getKey());
+            codec.write(out, entry.getValue());
+            count++;
+        }
+        byte[] result = bytes.toByteArray();
+        ByteBuffer.wrap(result).putInt(0, count);
+        return result;
+    }
+
+    private void load(Collection<Statistic<?>> statistics) {
+        Map<String, Statistic<?>> remaining = new HashMap<>();
+        for (Statistic<?> statistic : statistics) {
+            DataInputStream in = binaryDataManager != null ? binaryDataManager.getSection(statistic.getName()) : null;
+            if (in != null) {
+                loadBinary(statistic, in);
+            } else {
+                remaining.put(statistic.getName(), statistic);
+            }
+        }
+        if (dataManager == null || remaining.isEmpty()) return;
+        dataManager.readStreaming((name, reader) -> {
+            Statistic<?> statistic = remaining.get(name);
+            if (statistic == null) return false;
+            loadJson(statistic, reader);
+            return true;
+        });
+    }
+
+    private static void loadJson(Statistic<?> statistic, JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("players")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                UUID uuid = UUID.fromString(reader.nextName());
+                String value = readValue(reader);
+                if (value != null) {
+                    statistic.parseAndSet(uuid, value);
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    @Nullable
+    private static String readValue(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case BOOLEAN -> String.valueOf(reader.nextBoolean());
+            case NULL -> {
+                reader.nextNull();
+                yield null;
+            }
+            default -> reader.nextString();
+        };
+    }
+
+    private <T> void loadBinary(Statistic<T> statistic, DataInputStream in) {
+        BinaryCodec<T> codec = statistic.getType().getCodec();
+        try {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                UUID uuid = BinaryDataManager.readUUID(in);
+                statistic.set(uuid, codec.read(in));
+            }
+        } catch (IOException | IllegalArgumentException exception) {
+            ClickEventLib.LOGGER.severe("Failed to load statistic '" + statistic.getName() + "': " + exception.getMessage());
+        }
+    }
 }
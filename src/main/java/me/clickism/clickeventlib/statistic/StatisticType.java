@@ -1,9 +1,17 @@
 package me.clickism.clickeventlib.statistic;
 
+import me.clickism.clickeventlib.serialization.BinaryCodec;
+import me.clickism.clickeventlib.serialization.LongCodec;
 import me.clickism.clickeventlib.util.FormatUtils;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Represents a type of statistic.
@@ -16,36 +24,51 @@ public class StatisticType<T> {
      * The integer statistic type.
      */
     public static final StatisticType<Integer> INTEGER =
-            new StatisticType<>(Integer::parseInt, Integer::sum, String::valueOf);
+            new StatisticType<>(Integer::parseInt, Integer::sum, String::valueOf,
+                    codec(DataOutput::writeInt, DataInput::readInt),
+                    longCodec(Integer::longValue, bits -> (int) bits));
     /**
      * The double statistic type.
      * <p>
      * Formats the double to two decimal places.
      */
     public static final StatisticType<Double> DOUBLE =
-            new StatisticType<>(Double::parseDouble, Double::sum, d -> String.format("%.2f", d));
+            new StatisticType<>(Double::parseDouble, Double::sum, d -> String.format("%.2f", d),
+                    codec(DataOutput::writeDouble, DataInput::readDouble),
+                    longCodec(Double::doubleToRawLongBits, Double::longBitsToDouble));
     /**
      * The long statistic type.
      */
     public static final StatisticType<Long> LONG =
-            new StatisticType<>(Long::parseLong, Long::sum, String::valueOf);
+            new StatisticType<>(Long::parseLong, Long::sum, String::valueOf,
+                    codec(DataOutput::writeLong, DataInput::readLong),
+                    longCodec(Long::longValue, Long::valueOf));
     /**
      * The boolean statistic type.
      */
     public static final StatisticType<Boolean> BOOLEAN =
-            new StatisticType<>(Boolean::parseBoolean, (a, b) -> a || b, String::valueOf);
+            new StatisticType<>(Boolean::parseBoolean, (a, b) -> a || b, String::valueOf,
+                    codec(DataOutput::writeBoolean, DataInput::readBoolean),
+                    longCodec(b -> b ? 1 : 0, bits -> bits != 0));
     /**
      * The milliseconds statistic type. Formats the milliseconds using {@link FormatUtils#formatMillis}.
      */
     public static final StatisticType<Long> MILLISECONDS =
-            new StatisticType<>(Long::parseLong, Long::sum, FormatUtils::formatMillis);
+            new StatisticType<>(Long::parseLong, Long::sum, FormatUtils::formatMillis,
+                    codec(DataOutput::writeLong, DataInput::readLong),
+                    longCodec(Long::longValue, Long::valueOf));
 
     private final Function<String, T> parser;
     private final BiFunction<T, T, T> sum;
     private final Function<T, String> formatter;
+    @Nullable
+    private final BinaryCodec<T> codec;
+    @Nullable
+    private final LongCodec<T> longCodec;
 
     /**
      * Creates a new statistic type with the given parser.
+     * Statistics of this type can't be stored in the binary format.
      *
      * @param parser    the parser
      * @param sum       the sum function
@@ -55,6 +78,40 @@ public class StatisticType<T> {
         this.parser = parser;
         this.sum = sum;
         this.formatter = formatter;
+        this.codec = null;
+        this.longCodec = null;
+    }
+
+    /**
+     * Creates a new statistic type with the given parser and binary codec.
+     *
+     * @param parser    the parser
+     * @param sum       the sum function
+     * @param formatter the formatter
+     * @param codec     the codec used to store values in binary files
+     */
+    public StatisticType(Function<String, T> parser, BiFunction<T, T, T> sum, Function<T, String> formatter,
+                         BinaryCodec<T> codec) {
+        this(parser, sum, formatter, codec, null);
+    }
+
+    /**
+     * Creates a new statistic type with the given parser, binary codec and long codec.
+     * Only types with a long codec can be used in a statistic journal.
+     *
+     * @param parser    the parser
+     * @param sum       the sum function
+     * @param formatter the formatter
+     * @param codec     the codec used to store values in binary files
+     * @param longCodec the codec used to store values in fixed-size records, or null if not supported
+     */
+    public StatisticType(Function<String, T> parser, BiFunction<T, T, T> sum, Function<T, String> formatter,
+                         BinaryCodec<T> codec, @Nullable LongCodec<T> longCodec) {
+        this.parser = parser;
+        this.sum = sum;
+        this.formatter = formatter;
+        this.codec = codec;
+        this.longCodec = longCodec;
     }
 
     /**
@@ -88,4 +145,60 @@ public class StatisticType<T> {
     public String format(T value) {
         return formatter.apply(value);
     }
+
+    /**
+     * Get the codec used to store values in binary files.
+     *
+     * @return the binary codec, or null if values can't be stored in binary files
+     */
+    @Nullable
+    public BinaryCodec<T> getCodec() {
+        return codec;
+    }
+
+    /**
+     * Get the codec used to store values in fixed-size records.
+     *
+     * @return the long codec, or null if values can't be stored in 64 bits
+     */
+    @Nullable
+    public LongCodec<T> getLongCodec() {
+        return longCodec;
+    }
+
+    private interface Writer<T> {
+        void write(DataOutput out, T value) throws IOException;
+    }
+
+    private interface Reader<T> {
+        T read(DataInput in) throws IOException;
+    }
+
+    private static <T> BinaryCodec<T> codec(Writer<T> writer, Reader<T> reader) {
+        return new BinaryCodec<>() {
+            @Override
+            public void write(DataOutput out, T value) throws IOException {
+                writer.write(out, value);
+            }
+
+            @Override
+            public T read(DataInput in) throws IOException {
+                return reader.read(in);
+            }
+        };
+    }
+
+    private static <T> LongCodec<T> longCodec(ToLongFunction<T> encoder, LongFunction<T> decoder) {
+        return new LongCodec<>() {
+            @Override
+            public long encode(T value) {
+                return encoder.applyAsLong(value);
+            }
+
+            @Override
+            public T decode(long bits) {
+                return decoder.apply(bits);
+            }
+        };
+    }
 }
@@ -0,0 +1,190 @@
+package me.clickism.clickeventlib.statistic;
+
+import java.util.UUID;
+
+/**
+ * Open addressing map from UUIDs to primitive longs.
+ * <p>
+ * UUIDs are stored as two longs and values as primitives, so entries don't need any objects.
+ * Slots can be iterated from 0 to {@link #capacity()} with {@link #isUsed(int)}.
+ */
+class UUIDLongMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] mostSigBits = new long[INITIAL_CAPACITY];
+    private long[] leastSigBits = new long[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Creates a new empty map.
+     */
+    UUIDLongMap() {
+    }
+
+    /**
+     * Get the slot of the given UUID.
+     *
+     * @param uuid UUID
+     * @return slot of the UUID, or -1 if the map doesn't contain it
+     */
+    int find(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        int mask = used.length - 1;
+        for (int i = hash(most, least) & mask; used[i]; i = (i + 1) & mask) {
+            if (mostSigBits[i] == most && leastSigBits[i] == least) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Put the given value for the given UUID.
+     *
+     * @param uuid  UUID
+     * @param value value
+     */
+    void put(UUID uuid, long value) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        int mask = used.length - 1;
+        int i = hash(most, least) & mask;
+        for (; used[i]; i = (i + 1) & mask) {
+            if (mostSigBits[i] == most && leastSigBits[i] == least) {
+                values[i] = value;
+                return;
+            }
+        }
+        insert(i, most, least, value);
+        // Keep the load factor at most 3/4
+        if (++size * 4 > used.length * 3) {
+            resize(used.length * 2);
+        }
+    }
+
+    /**
+     * Remove the given UUID.
+     *
+     * @param uuid UUID
+     * @return true if the map contained the UUID
+     */
+    boolean remove(UUID uuid) {
+        int i = find(uuid);
+        if (i < 0) return false;
+        int mask = used.length - 1;
+        used[i] = false;
+        size--;
+        // Shift the following entries back so no lookup stops early at the freed slot
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int home = hash(mostSigBits[j], leastSigBits[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                insert(i, mostSigBits[j], leastSigBits[j], values[j]);
+                used[j] = false;
+                i = j;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    void clear() {
+        mostSigBits = new long[INITIAL_CAPACITY];
+        leastSigBits = new long[INITIAL_CAPACITY];
+        values = new long[INITIAL_CAPACITY];
+        used = new boolean[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of slots.
+     *
+     * @return number of slots
+     */
+    int capacity() {
+        return used.length;
+    }
+
+    /**
+     * Check whether the given slot holds an entry.
+     *
+     * @param slot slot
+     * @return true if the slot holds an entry
+     */
+    boolean isUsed(int slot) {
+        return used[slot];
+    }
+
+    /**
+     * Get the UUID in the given used slot.
+     *
+     * @param slot used slot
+     * @return UUID
+     */
+    UUID keyAt(int slot) {
+        return new UUID(mostSigBits[slot], leastSigBits[slot]);
+    }
+
+    /**
+     * Get the value in the given used slot.
+     *
+     * @param slot used slot
+     * @return value
+     */
+    long valueAt(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Set the value in the given used slot.
+     *
+     * @param slot  used slot
+     * @param value value
+     */
+    void setValueAt(int slot, long value) {
+        values[slot] = value;
+    }
+
+    private void insert(int slot, long most, long least, long value) {
+        mostSigBits[slot] = most;
+        leastSigBits[slot] = least;
+        values[slot] = value;
+        used[slot] = true;
+    }
+
+    private void resize(int capacity) {
+        long[] oldMostSigBits = mostSigBits;
+        long[] oldLeastSigBits = leastSigBits;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        mostSigBits = new long[capacity];
+        leastSigBits = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (!oldUsed[i]) continue;
+            int j = hash(oldMostSigBits[i], oldLeastSigBits[i]) & mask;
+            while (used[j]) {
+                j = (j + 1) & mask;
+            }
+            insert(j, oldMostSigBits[i], oldLeastSigBits[i], oldValues[i]);
+        }
+    }
+
+    private static int hash(long most, long least) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -1,7 +1,6 @@
 package me.clickism.clickeventlib.statistic;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import me.clickism.clickeventlib.annotations.AutoRegistered;
 import me.clickism.clickeventlib.annotations.RegistryType;
 import me.clickism.clickeventlib.serialization.AutoSaved;
@@ -48,6 +47,8 @@ public class UUIDManager implements AutoSaved, Listener {
     private final Map<UUID, String> uuidToName = new HashMap<>();
     private final Map<String, UUID> nameToUUID = new HashMap<>();
 
+    private long version = 0;
+
     @AutoRegistered(type = {RegistryType.EVENT, RegistryType.SAVE_ON_DISABLE})
     private UUIDManager(JavaPlugin plugin, AutoSaver autoSaver) throws IOException {
         dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), "uuids.json");
@@ -64,8 +65,11 @@ public class UUIDManager implements AutoSaved, Listener {
     private void updatePlayer(Player player) {
         UUID uuid = player.getUniqueId();
         String name = player.getName();
-        uuidToName.put(uuid, name);
+        String oldName = uuidToName.put(uuid, name);
         nameToUUID.put(name, uuid);
+        if (!name.equals(oldName)) {
+            version++;
+        }
     }
 
     /**
@@ -92,30 +96,59 @@ public class UUIDManager implements AutoSaved, Listener {
         return INSTANCE.nameToUUID.get(name);
     }
 
+    /**
+     * Gets the version of the known names, which changes whenever a name is added or changed.
+     *
+     * @return the version, or -1 if the UUID manager is not initialized
+     */
+    public static long getVersion() {
+        if (INSTANCE == null) return -1;
+        return INSTANCE.version;
+    }
+
     @Override
     public void save() {
-        JsonObject json = new JsonObject();
-        JsonArray array = new JsonArray();
-        uuidToName.forEach((uuid, name) -> {
-            JsonObject object = new JsonObject();
-            object.addProperty("uuid", uuid.toString());
-            object.addProperty("name", name);
-            array.add(object);
+        Map<UUID, String> snapshot = new HashMap<>(uuidToName);
+        dataManager.saveStreamingAsync(writer -> {
+            writer.beginObject();
+            writer.name("players").beginArray();
+            for (Map.Entry<UUID, String> entry : snapshot.entrySet()) {
+                writer.beginObject();
+                writer.name("uuid").value(entry.getKey().toString());
+                writer.name("name").value(entry.getValue());
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
         });
-        json.add("players", array);
-        dataManager.save(json);
     }
 
     private void load() {
-        JsonObject root = dataManager.getRoot();
-        if (!root.has("players")) return;
-        JsonArray array = root.getAsJsonArray("players");
-        array.forEach(element -> {
-            JsonObject object = element.getAsJsonObject();
-            UUID uuid = UUID.fromString(object.get("uuid").getAsString());
-            String name = object.get("name").getAsString();
-            uuidToName.put(uuid, name);
-            nameToUUID.put(name, uuid);
+        dataManager.readStreaming((property, reader) -> {
+            if (!property.equals("players")) return false;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                readPlayer(reader);
+            }
+            reader.endArray();
+            return true;
         });
     }
+
+    private void readPlayer(JsonReader reader) throws IOException {
+        UUID uuid = null;
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "uuid" -> uuid = UUID.fromString(reader.nextString());
+                case "name" -> name = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (uuid == null || name == null) return;
+        uuidToName.put(uuid, name);
+        nameToUUID.put(name, uuid);
+    }
 }
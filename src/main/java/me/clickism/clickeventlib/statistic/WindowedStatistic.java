@@ -0,0 +1,162 @@
+package me.clickism.clickeventlib.statistic;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Statistic that only counts the increments of the last buckets of a time window,
+ * i.E. "this hour" with 12 buckets of 5 minutes, or "this round" with a single bucket that is advanced manually.
+ * <p>
+ * Increments are recorded in the current bucket of a ring buffer and added to the total of the window.
+ * When a bucket expires, only its own increments are subtracted from the totals,
+ * so evicting doesn't rescan the window, and leaderboard queries cost the same as for all-time statistics.
+ * <p>
+ * Expired buckets are evicted before every change, and every second by the {@link StatisticManager}
+ * the statistic is registered in, so reading the statistic has no side effects.
+ * <p>
+ * Buckets are not saved, loaded values are counted in the current bucket.
+ *
+ * @param <T> type of the statistic
+ */
+public class WindowedStatistic<T> extends Statistic<T> {
+    private final UnaryOperator<T> negate;
+    private final long bucketMillis;
+    private final List<Map<UUID, T>> buckets;
+    private int currentBucket = 0;
+    private long currentBucketStart = System.currentTimeMillis();
+
+    /**
+     * Creates a new windowed statistic whose buckets expire after the given duration.
+     *
+     * @param type           type of the statistic
+     * @param name           identifier of the statistic
+     * @param defaultValue   default value of the statistic
+     * @param comparator     comparator for the leaderboard
+     * @param negate         function that negates a value, used to subtract expired increments
+     * @param bucketDuration duration of a bucket
+     * @param bucketCount    number of buckets in the window
+     * @throws IllegalArgumentException if the bucket duration is not positive or the bucket count is less than 1
+     */
+    public WindowedStatistic(StatisticType<T> type, String name, T defaultValue, @Nullable Comparator<T> comparator,
+                             UnaryOperator<T> negate, Duration bucketDuration, int bucketCount)
+            throws IllegalArgumentException {
+        this(type, name, defaultValue, comparator, negate, bucketDuration.toMillis(), bucketCount);
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket duration must be positive");
+        }
+    }
+
+    /**
+     * Creates a new windowed statistic whose buckets are only advanced with {@link #advance()},
+     * i.E. at the end of every round.
+     *
+     * @param type         type of the statistic
+     * @param name         identifier of the statistic
+     * @param defaultValue default value of the statistic
+     * @param comparator   comparator for the leaderboard
+     * @param negate       function that negates a value, used to subtract expired increments
+     * @param bucketCount  number of buckets in the window
+     * @throws IllegalArgumentException if the bucket count is less than 1
+     */
+    public WindowedStatistic(StatisticType<T> type, String name, T defaultValue, @Nullable Comparator<T> comparator,
+                             UnaryOperator<T> negate, int bucketCount) throws IllegalArgumentException {
+        this(type, name, defaultValue, comparator, negate, 0, bucketCount);
+    }
+
+    private WindowedStatistic(StatisticType<T> type, String name, T defaultValue, @Nullable Comparator<T> comparator,
+                              UnaryOperator<T> negate, long bucketMillis, int bucketCount)
+            throws IllegalArgumentException {
+        super(type, name, defaultValue, comparator);
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be at least 1");
+        }
+        this.negate = negate;
+        this.bucketMillis = bucketMillis;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Advance to the next bucket, evicting the oldest bucket.
+     */
+    public void advance() {
+        currentBucket = (currentBucket + 1) % buckets.size();
+        Map<UUID, T> evicted = buckets.get(currentBucket);
+        evicted.forEach(this::subtract);
+        evicted.clear();
+    }
+
+    /**
+     * Advance past all buckets that expired since the current bucket was started.
+     * Must be called on the main thread.
+     */
+    public void evictExpired() {
+        if (bucketMillis <= 0) return;
+        long now = System.currentTimeMillis();
+        long expired = (now - currentBucketStart) / bucketMillis;
+        if (expired <= 0) return;
+        for (int i = 0; i < Math.min(expired, buckets.size()); i++) {
+            advance();
+        }
+        currentBucketStart += expired * bucketMillis;
+    }
+
+    private void subtract(UUID uuid, T increment) {
+        T total = super.getOrNull(uuid);
+        if (total == null) return;
+        for (Map<UUID, T> bucket : buckets) {
+            if (bucket != buckets.get(currentBucket) && bucket.containsKey(uuid)) {
+                super.set(uuid, getType().sum(total, negate.apply(increment)));
+                return;
+            }
+        }
+        // No increments left in the window
+        super.remove(uuid);
+    }
+
+    /**
+     * Set the total of the window for the given UUID, by recording the difference in the current bucket.
+     *
+     * @param uuid  the UUID
+     * @param value the new value of the statistic
+     */
+    @Override
+    public void set(UUID uuid, T value) {
+        evictExpired();
+        T total = super.getOrNull(uuid);
+        // Without a total, the increment is applied to the default value
+        T base = total != null ? total : getDefaultValue();
+        incrementBy(uuid, getType().sum(value, negate.apply(base)));
+    }
+
+    @Override
+    public void incrementBy(UUID uuid, T increment) {
+        evictExpired();
+        StatisticType<T> type = getType();
+        buckets.get(currentBucket).merge(uuid, increment, type::sum);
+        T total = super.getOrNull(uuid);
+        super.set(uuid, type.sum(total != null ? total : getDefaultValue(), increment));
+    }
+
+    @Override
+    public void remove(UUID uuid) {
+        buckets.forEach(bucket -> bucket.remove(uuid));
+        super.remove(uuid);
+    }
+
+    @Override
+    public void clear() {
+        buckets.forEach(Map::clear);
+        super.clear();
+    }
+
+    @Override
+    boolean isJournalable() {
+        return false;
+    }
+}
@@ -38,6 +38,7 @@ public class RoleManager implements Listener {
         this.dataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
         load();
+        dataManager.releaseRoot();
     }
 
     /**
@@ -119,7 +120,7 @@ public class RoleManager implements Listener {
             array.add(entry);
         });
         json.add("players", array);
-        dataManager.save(json);
+        dataManager.saveAsync(json);
     }
 
     private void load() {
@@ -41,6 +41,20 @@ public abstract class Trigger implements Named {
      */
     public abstract void onExit(Player player, @Nullable TriggerBox box);
 
+    /**
+     * Whether a player moving through a trigger box of this trigger within a single move should
+     * enter and exit it, even if neither end of the move is inside the box.
+     * Useful for thin boxes that fast players (elytra, riptide, vehicles) could skip over.
+     * <p>
+     * Swept detection can also be enabled for all triggers with {@link TriggerManager#setSweptDetection(boolean)}.
+     * Must always return the same value, since it is also checked when the trigger is registered.
+     *
+     * @return true to check the path of each move against the boxes of this trigger
+     */
+    public boolean usesSweptDetection() {
+        return false;
+    }
+
     /**
      * Triggered when a player is teleported out of a trigger box.
      *
@@ -121,6 +121,70 @@ public class TriggerBox implements Named {
                 minZ <= z && z < maxZ;
     }
 
+    /**
+     * Checks if the given block position is inside this box.
+     * Does not check the world.
+     *
+     * @param blockX block x-coordinate
+     * @param blockY block y-coordinate
+     * @param blockZ block z-coordinate
+     * @return true if inside, false otherwise
+     */
+    public boolean contains(int blockX, int blockY, int blockZ) {
+        return minX <= blockX && blockX < maxX &&
+                minY <= blockY && blockY < maxY &&
+                minZ <= blockZ && blockZ < maxZ;
+    }
+
+    /**
+     * Checks if the line segment between the given positions passes through this box.
+     * Uses the slab method, so the segment is clipped against each axis of the box in turn.
+     * Does not check the world.
+     *
+     * @param fromX start x-coordinate
+     * @param fromY start y-coordinate
+     * @param fromZ start z-coordinate
+     * @param toX   end x-coordinate
+     * @param toY   end y-coordinate
+     * @param toZ   end z-coordinate
+     * @return true if the segment intersects this box, false otherwise
+     */
+    public boolean intersectsSegment(double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        double enter = 0;
+        double exit = 1;
+        // X slab
+        double dx = toX - fromX;
+        if (dx == 0) {
+            if (fromX < minX || fromX >= maxX) return false;
+        } else {
+            double t1 = (minX - fromX) / dx;
+            double t2 = (maxX - fromX) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        // Y slab
+        double dy = toY - fromY;
+        if (dy == 0) {
+            if (fromY < minY || fromY >= maxY) return false;
+        } else {
+            double t1 = (minY - fromY) / dy;
+            double t2 = (maxY - fromY) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        // Z slab
+        double dz = toZ - fromZ;
+        if (dz == 0) {
+            if (fromZ < minZ || fromZ >= maxZ) return false;
+        } else {
+            double t1 = (minZ - fromZ) / dz;
+            double t2 = (maxZ - fromZ) / dz;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        return enter <= exit;
+    }
+
     /**
      * Triggers the enter Trigger for the given player.
      *
@@ -175,6 +239,60 @@ public class TriggerBox implements Named {
         return new BlockVector(maxX, maxY, maxZ);
     }
 
+    /**
+     * Gets the minimum x-coordinate of this box.
+     *
+     * @return minimum x-coordinate
+     */
+    public int getMinX() {
+        return minX;
+    }
+
+    /**
+     * Gets the minimum y-coordinate of this box.
+     *
+     * @return minimum y-coordinate
+     */
+    public int getMinY() {
+        return minY;
+    }
+
+    /**
+     * Gets the minimum z-coordinate of this box.
+     *
+     * @return minimum z-coordinate
+     */
+    public int getMinZ() {
+        return minZ;
+    }
+
+    /**
+     * Gets the maximum x-coordinate (exclusive) of this box.
+     *
+     * @return maximum x-coordinate
+     */
+    public int getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Gets the maximum y-coordinate (exclusive) of this box.
+     *
+     * @return maximum y-coordinate
+     */
+    public int getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Gets the maximum z-coordinate (exclusive) of this box.
+     *
+     * @return maximum z-coordinate
+     */
+    public int getMaxZ() {
+        return maxZ;
+    }
+
     /**
      * Gets the closest distance from this box to the given location.
      *
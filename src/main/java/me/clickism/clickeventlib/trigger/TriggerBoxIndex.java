@@ -0,0 +1,184 @@
+package me.clickism.clickeventlib.trigger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * Spatial index for trigger boxes, bucketed by world and chunk.
+ * <p>
+ * Boxes are partitioned by world name, and the partitions of loaded worlds are also
+ * mapped by world UUID, so lookups don't have to compare world names.
+ * Every bucket is kept sorted by the z-coordinate of the boxes,
+ * so the first box found inside a bucket is the one with the lowest z-coordinate.
+ */
+class TriggerBoxIndex {
+    private static final int CHUNK_SHIFT = 4;
+
+    private final Map<String, Map<Long, List<TriggerBox>>> worldMap = new HashMap<>();
+    private final Map<UUID, Map<Long, List<TriggerBox>>> loadedWorldMap = new HashMap<>();
+
+    /**
+     * Creates a new empty trigger box index.
+     */
+    TriggerBoxIndex() {
+    }
+
+    /**
+     * Adds a trigger box to every chunk bucket it overlaps.
+     *
+     * @param box trigger box to add
+     */
+    void add(TriggerBox box) {
+        Map<Long, List<TriggerBox>> chunkMap = getOrCreatePartition(box.getWorldName());
+        forEachChunk(box, key -> {
+            List<TriggerBox> bucket = chunkMap.computeIfAbsent(key, k -> new ArrayList<>());
+            bucket.add(getInsertionIndex(bucket, box.getZ()), box);
+        });
+    }
+
+    /**
+     * Removes a trigger box from every chunk bucket it overlaps.
+     *
+     * @param box trigger box to remove
+     */
+    void remove(TriggerBox box) {
+        Map<Long, List<TriggerBox>> chunkMap = worldMap.get(box.getWorldName());
+        if (chunkMap == null) return;
+        forEachChunk(box, key -> {
+            List<TriggerBox> bucket = chunkMap.get(key);
+            if (bucket == null) return;
+            bucket.remove(box);
+            if (bucket.isEmpty()) {
+                chunkMap.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Removes all trigger boxes from the index.
+     */
+    void clear() {
+        worldMap.values().forEach(Map::clear);
+    }
+
+    /**
+     * Maps the partition of the given world by its UUID. Called when the world is loaded.
+     *
+     * @param world world that was loaded
+     */
+    void loadWorld(World world) {
+        loadedWorldMap.put(world.getUID(), getOrCreatePartition(world.getName()));
+    }
+
+    /**
+     * Removes the UUID mapping of the given world. Called when the world is unloaded.
+     * The boxes of the world are kept, so they are available again when the world is loaded.
+     *
+     * @param world world that was unloaded
+     */
+    void unloadWorld(World world) {
+        loadedWorldMap.remove(world.getUID());
+    }
+
+    /**
+     * Gets the trigger boxes in the given loaded world that overlap the chunk of the given block position.
+     * The returned list is sorted by z-coordinate and must not be modified.
+     *
+     * @param world  loaded world
+     * @param blockX block x-coordinate
+     * @param blockZ block z-coordinate
+     * @return trigger boxes in the chunk
+     */
+    List<TriggerBox> getCandidates(World world, int blockX, int blockZ) {
+        Map<Long, List<TriggerBox>> chunkMap = loadedWorldMap.get(world.getUID());
+        if (chunkMap == null) return Collections.emptyList();
+        List<TriggerBox> bucket = chunkMap.get(getChunkKey(blockX >> CHUNK_SHIFT, blockZ >> CHUNK_SHIFT));
+        return bucket != null ? bucket : Collections.emptyList();
+    }
+
+    /**
+     * Adds the trigger boxes in the given loaded world that overlap any chunk
+     * in the given area of block positions to the result.
+     *
+     * @param world     loaded world
+     * @param minBlockX minimum block x-coordinate
+     * @param minBlockZ minimum block z-coordinate
+     * @param maxBlockX maximum block x-coordinate
+     * @param maxBlockZ maximum block z-coordinate
+     * @param result    collection to add the trigger boxes to
+     */
+    void collectCandidates(World world, int minBlockX, int minBlockZ, int maxBlockX, int maxBlockZ,
+                           Collection<TriggerBox> result) {
+        Map<Long, List<TriggerBox>> chunkMap = loadedWorldMap.get(world.getUID());
+        if (chunkMap == null) return;
+        for (int chunkX = minBlockX >> CHUNK_SHIFT; chunkX <= maxBlockX >> CHUNK_SHIFT; chunkX++) {
+            for (int chunkZ = minBlockZ >> CHUNK_SHIFT; chunkZ <= maxBlockZ >> CHUNK_SHIFT; chunkZ++) {
+                List<TriggerBox> bucket = chunkMap.get(getChunkKey(chunkX, chunkZ));
+                if (bucket != null) {
+                    result.addAll(bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the partition of the given world, creating it if it doesn't exist.
+     * New partitions of already loaded worlds are also mapped by world UUID.
+     *
+     * @param worldName world name
+     * @return partition of the world
+     */
+    private Map<Long, List<TriggerBox>> getOrCreatePartition(String worldName) {
+        Map<Long, List<TriggerBox>> chunkMap = worldMap.get(worldName);
+        if (chunkMap != null) return chunkMap;
+        chunkMap = new HashMap<>();
+        worldMap.put(worldName, chunkMap);
+        World world = Bukkit.getWorld(worldName);
+        if (world != null) {
+            loadedWorldMap.put(world.getUID(), chunkMap);
+        }
+        return chunkMap;
+    }
+
+    private static void forEachChunk(TriggerBox box, LongConsumer consumer) {
+        // Max bounds are exclusive
+        int minChunkX = box.getMinX() >> CHUNK_SHIFT;
+        int minChunkZ = box.getMinZ() >> CHUNK_SHIFT;
+        int maxChunkX = (box.getMaxX() - 1) >> CHUNK_SHIFT;
+        int maxChunkZ = (box.getMaxZ() - 1) >> CHUNK_SHIFT;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                consumer.accept(getChunkKey(chunkX, chunkZ));
+            }
+        }
+    }
+
+    /**
+     * Gets the index after the last box with a z-coordinate less than or equal to the given one,
+     * so boxes with the same z-coordinate keep their insertion order.
+     *
+     * @param bucket bucket sorted by z-coordinate
+     * @param z      z-coordinate of the box to insert
+     * @return insertion index
+     */
+    private static int getInsertionIndex(List<TriggerBox> bucket, int z) {
+        int low = 0;
+        int high = bucket.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucket.get(mid).getZ() <= z) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,158 @@
+package me.clickism.clickeventlib.trigger;
+
+import me.clickism.clickeventlib.location.SafeLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index for trigger interactions, keyed by world name and packed block position.
+ * <p>
+ * Lookups don't allocate, so they can be done for every interaction and block break.
+ */
+class TriggerInteractionIndex {
+    private final Map<String, PositionMap> worldMap = new HashMap<>();
+
+    /**
+     * Creates a new empty trigger interaction index.
+     */
+    TriggerInteractionIndex() {
+    }
+
+    /**
+     * Adds an interaction at the block of the given location.
+     *
+     * @param location location of the interaction
+     * @param trigger  trigger of the interaction
+     */
+    void put(SafeLocation location, Trigger trigger) {
+        worldMap.computeIfAbsent(location.getWorldName(), k -> new PositionMap()).put(pack(location), trigger);
+    }
+
+    /**
+     * Removes the interaction at the block of the given location.
+     *
+     * @param location location of the interaction
+     */
+    void remove(SafeLocation location) {
+        PositionMap positionMap = worldMap.get(location.getWorldName());
+        if (positionMap == null) return;
+        positionMap.remove(pack(location));
+    }
+
+    /**
+     * Removes all interactions.
+     */
+    void clear() {
+        worldMap.clear();
+    }
+
+    /**
+     * Gets the trigger of the interaction at the given block.
+     *
+     * @param worldName world name
+     * @param blockX    block x-coordinate
+     * @param blockY    block y-coordinate
+     * @param blockZ    block z-coordinate
+     * @return trigger, or null if there is no interaction at the block
+     */
+    @Nullable
+    Trigger get(String worldName, int blockX, int blockY, int blockZ) {
+        PositionMap positionMap = worldMap.get(worldName);
+        if (positionMap == null) return null;
+        return positionMap.get(pack(blockX, blockY, blockZ));
+    }
+
+    private static long pack(SafeLocation location) {
+        return pack((int) Math.floor(location.getX()), (int) Math.floor(location.getY()), (int) Math.floor(location.getZ()));
+    }
+
+    /**
+     * Packs a block position into a long, using 26 bits for x and z and 12 bits for y.
+     *
+     * @param x block x-coordinate
+     * @param y block y-coordinate
+     * @param z block z-coordinate
+     * @return packed position
+     */
+    private static long pack(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    /**
+     * Open addressing map from packed block positions to triggers.
+     * A slot is empty if its value is null.
+     */
+    private static class PositionMap {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Trigger[] values = new Trigger[INITIAL_CAPACITY];
+        private int size = 0;
+
+        @Nullable
+        Trigger get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return null;
+        }
+
+        void put(long key, Trigger value) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) break;
+            }
+            if (values[i] == null) return;
+            values[i] = null;
+            size--;
+            // Shift the following entries back so no lookup stops early at the freed slot
+            for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Trigger[] oldValues = values;
+            keys = new long[capacity];
+            values = new Trigger[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
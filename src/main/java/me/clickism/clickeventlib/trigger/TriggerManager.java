@@ -1,8 +1,10 @@
 package me.clickism.clickeventlib.trigger;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import me.clickism.clickeventlib.ClickEventLib;
 import me.clickism.clickeventlib.annotations.AutoRegistered;
 import me.clickism.clickeventlib.annotations.RegistryType;
 import me.clickism.clickeventlib.chat.MessageType;
@@ -11,9 +13,11 @@ import me.clickism.clickeventlib.item.CustomItemManager;
 import me.clickism.clickeventlib.location.SafeLocation;
 import me.clickism.clickeventlib.property.BooleanProperty;
 import me.clickism.clickeventlib.property.Property;
+import me.clickism.clickeventlib.serialization.AutoSaver;
 import me.clickism.clickeventlib.serialization.JSONDataManager;
 import me.clickism.clickeventlib.util.Utils;
 import me.clickism.subcommandapi.util.NamedCollection;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Tag;
 import org.bukkit.World;
@@ -26,10 +30,13 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.util.BlockVector;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
@@ -47,6 +54,31 @@ public class TriggerManager implements Listener {
         MOVE, TELEPORT
     }
 
+    /**
+     * Mode that determines when player positions are evaluated against the trigger boxes.
+     */
+    public enum EvaluationMode {
+        /**
+         * Evaluate on every {@link PlayerMoveEvent}.
+         */
+        MOVE_EVENT,
+        /**
+         * Evaluate the positions of all online players in one batch every N ticks.
+         */
+        TICK_SAMPLED
+    }
+
+    /**
+     * Default sample period in ticks for {@link EvaluationMode#TICK_SAMPLED}.
+     */
+    public static final long DEFAULT_SAMPLE_PERIOD = 2;
+
+    /**
+     * Maximum distance of a move in blocks that is checked with swept detection.
+     * Longer moves only check their end positions.
+     */
+    public static final double MAX_SWEEP_DISTANCE = 64;
+
     private static final Property<Boolean> TRIGGER_OUTPUT = DebugPropertyRegistration.register(
             new BooleanProperty("trigger_output", false)
     );
@@ -61,12 +93,34 @@ public class TriggerManager implements Listener {
 
     private final Map<Trigger, List<TriggerBox>> triggerToBoxesMap = new HashMap<>();
     private final NamedCollection<TriggerBox> triggerBoxes = new NamedCollection<>(new ArrayList<>());
+    private final TriggerBoxIndex triggerBoxIndex = new TriggerBoxIndex();
+
+    private final Map<Player, Set<TriggerBox>> playerBoxesMap = new HashMap<>();
+
+    private EvaluationMode evaluationMode = EvaluationMode.MOVE_EVENT;
+    private final Map<Player, Location> sampledLocationMap = new HashMap<>();
+    private final Location sampleBuffer = new Location(null, 0, 0, 0);
+    private final Location previousSampleBuffer = new Location(null, 0, 0, 0);
+    private BukkitTask sampleTask;
+
+    private boolean sweptDetection = false;
+    private int sweptTriggerCount = 0;
+    // Reused by every swept check, only the crossed boxes are copied before the triggers are fired
+    private final Set<TriggerBox> sweepCandidates = new LinkedHashSet<>();
+    private final Map<Trigger, TriggerBox> sweepCrossedBoxes = new LinkedHashMap<>();
 
     private final Map<SafeLocation, Trigger> triggerInteractionMap = new HashMap<>();
+    private final TriggerInteractionIndex triggerInteractionIndex = new TriggerInteractionIndex();
 
     private final Map<Trigger, Integer> nextIdMap = new HashMap<>();
 
+    private final JavaPlugin plugin;
     private final JSONDataManager jsonDataManager;
+    // Saved data of triggers that weren't registered yet, kept so saving doesn't drop it
+    private final Map<String, JsonElement> unregisteredTriggerData = new LinkedHashMap<>();
+
+    private final boolean deferredSaving;
+    private boolean dirty = false;
 
     /**
      * Create a new trigger manager.
@@ -79,12 +133,46 @@ public class TriggerManager implements Listener {
      */
     @AutoRegistered(type = RegistryType.EVENT)
     public TriggerManager(JavaPlugin plugin, CustomItemManager itemManager, String namespace, String fileName) throws IOException {
+        this(plugin, itemManager, namespace, fileName, false);
+    }
+
+    /**
+     * Create a new trigger manager that defers saving.
+     * <p>
+     * Changes to the trigger boxes/interactions only mark the manager as changed,
+     * and are written to the file at most once every save interval and on disable,
+     * instead of rewriting the file on every change.
+     *
+     * @param plugin       plugin to register events with
+     * @param itemManager  custom item manager to register the trigger selector item with
+     * @param namespace    namespace of the plugin used to register the selector item
+     * @param fileName     name of the file to save the trigger boxes to
+     * @param autoSaver    auto saver to register the deferred saves with
+     * @param saveInterval save interval in seconds
+     * @throws IOException if the data couldn't be loaded
+     */
+    @AutoRegistered(type = {RegistryType.EVENT, RegistryType.SAVE_ON_INTERVAL, RegistryType.SAVE_ON_DISABLE})
+    public TriggerManager(JavaPlugin plugin, CustomItemManager itemManager, String namespace, String fileName,
+                          AutoSaver autoSaver, int saveInterval) throws IOException {
+        this(plugin, itemManager, namespace, fileName, true);
+        autoSaver.registerSaveOnInterval(this::saveIfChanged, saveInterval);
+        autoSaver.registerSaveOnDisable(this::saveIfChanged);
+    }
+
+    private TriggerManager(JavaPlugin plugin, CustomItemManager itemManager, String namespace, String fileName,
+                           boolean deferredSaving) throws IOException {
+        this.plugin = plugin;
+        this.deferredSaving = deferredSaving;
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
         this.boxSelectorItem = new TriggerBoxSelectorItem(namespace, this, selectionManager);
         this.interactionSelectorItem = new TriggerInteractionSelectorItem(namespace, this, selectionManager);
         itemManager.register(boxSelectorItem);
         itemManager.register(interactionSelectorItem);
         this.jsonDataManager = new JSONDataManager(plugin, plugin.getDataFolder(), fileName);
+        jsonDataManager.readStreaming((name, reader) -> {
+            unregisteredTriggerData.put(name, JsonParser.parseReader(reader));
+            return true;
+        });
     }
 
     /**
@@ -105,6 +193,9 @@ public class TriggerManager implements Listener {
      */
     public Trigger registerTrigger(Trigger trigger) {
         triggers.add(trigger);
+        if (trigger.usesSweptDetection()) {
+            sweptTriggerCount++;
+        }
         tryLoad(trigger);
         return trigger;
     }
@@ -188,7 +279,7 @@ public class TriggerManager implements Listener {
     public void registerTriggerBox(TriggerBox box) {
         addTriggerBox(box);
         sortTriggerBoxes();
-        save();
+        markChanged();
     }
 
     /**
@@ -200,6 +291,7 @@ public class TriggerManager implements Listener {
         Trigger trigger = box.getTrigger();
         triggerToBoxesMap.computeIfAbsent(trigger, k -> new ArrayList<>()).add(box);
         triggerBoxes.add(box);
+        triggerBoxIndex.add(box);
         nextIdMap.put(trigger, box.getId() + 1);
     }
 
@@ -216,23 +308,45 @@ public class TriggerManager implements Listener {
      * @param box trigger box to unregister
      */
     public void unregisterTriggerBox(TriggerBox box) {
+        removeTriggerBox(box);
+        markChanged();
+    }
+
+    /**
+     * Unregisters multiple trigger boxes and saves once.
+     *
+     * @param boxes trigger boxes to unregister
+     */
+    public void unregisterTriggerBoxes(Collection<TriggerBox> boxes) {
+        boxes.forEach(this::removeTriggerBox);
+        markChanged();
+    }
+
+    /**
+     * Only removes a trigger box without saving.
+     *
+     * @param box trigger box to remove
+     */
+    private void removeTriggerBox(TriggerBox box) {
         triggerBoxes.remove(box);
+        triggerBoxIndex.remove(box);
         List<TriggerBox> boxes = triggerToBoxesMap.get(box.getTrigger());
         if (boxes != null) {
             boxes.remove(box);
         }
-        save();
+        playerBoxesMap.values().forEach(playerBoxes -> playerBoxes.remove(box));
     }
 
     /**
      * Register an interaction.
+     * Replaces the interaction in the same block, if there is one.
      *
      * @param location location of the interaction
      * @param trigger  trigger to perform when interacting
      */
     public void registerTriggerInteraction(SafeLocation location, Trigger trigger) {
         addTriggerInteraction(location, trigger);
-        save();
+        markChanged();
     }
 
     /**
@@ -242,7 +356,9 @@ public class TriggerManager implements Listener {
      * @param trigger  trigger to perform when interacting
      */
     private void addTriggerInteraction(SafeLocation location, Trigger trigger) {
-        triggerInteractionMap.put(location, trigger);
+        SafeLocation blockLocation = toBlockLocation(location);
+        triggerInteractionMap.put(blockLocation, trigger);
+        triggerInteractionIndex.put(blockLocation, trigger);
     }
 
     /**
@@ -251,8 +367,22 @@ public class TriggerManager implements Listener {
      * @param location location of the interaction
      */
     public void unregisterTriggerInteraction(SafeLocation location) {
-        triggerInteractionMap.remove(location);
-        save();
+        SafeLocation blockLocation = toBlockLocation(location);
+        triggerInteractionMap.remove(blockLocation);
+        triggerInteractionIndex.remove(blockLocation);
+        markChanged();
+    }
+
+    /**
+     * Get the location of the block at the given location.
+     * Interactions are keyed by block, so the map and the index always hold the same interactions.
+     *
+     * @param location location
+     * @return location of the block
+     */
+    private static SafeLocation toBlockLocation(SafeLocation location) {
+        return new SafeLocation(location.getWorldName(),
+                Math.floor(location.getX()), Math.floor(location.getY()), Math.floor(location.getZ()), 0, 0);
     }
 
     /**
@@ -266,6 +396,7 @@ public class TriggerManager implements Listener {
 
     /**
      * Get the list of all trigger boxes.
+     * Use {@link #unregisterTriggerBox(TriggerBox)} to remove boxes instead of modifying this collection.
      *
      * @return list of all trigger boxes
      */
@@ -275,11 +406,13 @@ public class TriggerManager implements Listener {
 
     /**
      * Get the map of all trigger interactions.
+     * Use {@link #registerTriggerInteraction(SafeLocation, Trigger)} and
+     * {@link #unregisterTriggerInteraction(SafeLocation)} to modify the interactions.
      *
-     * @return map of all trigger interactions
+     * @return unmodifiable map of all trigger interactions, keyed by block location
      */
     public Map<SafeLocation, Trigger> getTriggerInteractionMap() {
-        return triggerInteractionMap;
+        return Collections.unmodifiableMap(triggerInteractionMap);
     }
 
     /**
@@ -288,7 +421,9 @@ public class TriggerManager implements Listener {
     public void clearTriggerBoxesAndSave() {
         triggerBoxes.clear();
         triggerToBoxesMap.clear();
-        save();
+        triggerBoxIndex.clear();
+        playerBoxesMap.clear();
+        markChanged();
     }
 
     /**
@@ -298,12 +433,17 @@ public class TriggerManager implements Listener {
      */
     public void clearTriggerBoxesAndSave(Trigger trigger) {
         clearTriggerBoxes(trigger);
-        save();
+        markChanged();
     }
 
     private void clearTriggerBoxes(Trigger trigger) {
         triggerBoxes.removeIf(box -> box.getTrigger().equals(trigger));
-        triggerToBoxesMap.remove(trigger);
+        List<TriggerBox> boxes = triggerToBoxesMap.remove(trigger);
+        if (boxes != null) {
+            boxes.forEach(triggerBoxIndex::remove);
+        }
+        playerBoxesMap.values().forEach(playerBoxes ->
+                playerBoxes.removeIf(box -> box.getTrigger().equals(trigger)));
     }
 
     /**
@@ -311,7 +451,8 @@ public class TriggerManager implements Listener {
      */
     public void clearTriggerInteractionsAndSave() {
         triggerInteractionMap.clear();
-        save();
+        triggerInteractionIndex.clear();
+        markChanged();
     }
 
     /**
@@ -321,11 +462,15 @@ public class TriggerManager implements Listener {
      */
     public void clearTriggerInteractionsAndSave(Trigger trigger) {
         clearTriggerInteractions(trigger);
-        save();
+        markChanged();
     }
 
     private void clearTriggerInteractions(Trigger trigger) {
-        triggerInteractionMap.entrySet().removeIf(entry -> entry.getValue().equals(trigger));
+        triggerInteractionMap.entrySet().removeIf(entry -> {
+            if (!entry.getValue().equals(trigger)) return false;
+            triggerInteractionIndex.remove(entry.getKey());
+            return true;
+        });
     }
 
     /**
@@ -376,16 +521,30 @@ public class TriggerManager implements Listener {
     public boolean isInTrigger(Location location, Trigger trigger) {
         World world = location.getWorld();
         if (world == null) return false;
-        List<TriggerBox> boxes = triggerToBoxesMap.get(trigger);
-        if (boxes == null) return false;
-        for (TriggerBox box : boxes) {
-            if (box.isInside(location)) {
+        int blockX = location.getBlockX();
+        int blockY = location.getBlockY();
+        int blockZ = location.getBlockZ();
+        for (TriggerBox box : triggerBoxIndex.getCandidates(world, blockX, blockZ)) {
+            if (box.getTrigger().equals(trigger) && box.contains(blockX, blockY, blockZ)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Get the trigger boxes the player was inside of when their movement was last handled.
+     * The boxes are sorted by z-coordinate.
+     *
+     * @param player player to get the trigger boxes of
+     * @return unmodifiable set of trigger boxes, empty if the player isn't tracked
+     */
+    public Set<TriggerBox> getCurrentTriggerBoxes(Player player) {
+        Set<TriggerBox> boxes = playerBoxesMap.get(player);
+        if (boxes == null) return Collections.emptySet();
+        return Collections.unmodifiableSet(boxes);
+    }
+
     /**
      * Bypass all triggers for the player.
      *
@@ -414,6 +573,109 @@ public class TriggerManager implements Listener {
         return bypassedPlayers.contains(player);
     }
 
+    /**
+     * Set the evaluation mode with the {@link #DEFAULT_SAMPLE_PERIOD}.
+     *
+     * @param mode evaluation mode
+     */
+    public void setEvaluationMode(EvaluationMode mode) {
+        setEvaluationMode(mode, DEFAULT_SAMPLE_PERIOD);
+    }
+
+    /**
+     * Set the evaluation mode.
+     * <p>
+     * With {@link EvaluationMode#TICK_SAMPLED}, the positions of all online players are checked
+     * in a single task every {@code samplePeriod} ticks instead of on every move event.
+     * Teleports are still handled immediately.
+     *
+     * @param mode         evaluation mode
+     * @param samplePeriod period in ticks between samples, only used for {@link EvaluationMode#TICK_SAMPLED}
+     * @throws IllegalArgumentException if the sample period is less than 1
+     */
+    public void setEvaluationMode(EvaluationMode mode, long samplePeriod) throws IllegalArgumentException {
+        if (samplePeriod < 1) {
+            throw new IllegalArgumentException("Sample period must be at least 1 tick");
+        }
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        sampledLocationMap.clear();
+        this.evaluationMode = mode;
+        if (mode == EvaluationMode.TICK_SAMPLED) {
+            sampleTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sampleOnlinePlayers, samplePeriod, samplePeriod);
+        }
+    }
+
+    /**
+     * Get the evaluation mode.
+     *
+     * @return evaluation mode
+     */
+    public EvaluationMode getEvaluationMode() {
+        return evaluationMode;
+    }
+
+    /**
+     * Set whether swept detection is enabled for all triggers.
+     * <p>
+     * With swept detection, players moving through a trigger box within a single move
+     * (or sample in {@link EvaluationMode#TICK_SAMPLED}) enter and exit it,
+     * even if neither end of the move is inside the box.
+     * Swept detection can also be enabled per trigger with {@link Trigger#usesSweptDetection()}.
+     *
+     * @param sweptDetection true to enable swept detection for all triggers
+     */
+    public void setSweptDetection(boolean sweptDetection) {
+        this.sweptDetection = sweptDetection;
+    }
+
+    /**
+     * Check if swept detection is enabled for all triggers.
+     *
+     * @return true if swept detection is enabled for all triggers
+     */
+    public boolean hasSweptDetection() {
+        return sweptDetection;
+    }
+
+    /**
+     * Evaluate the positions of all online players since their last sample.
+     * The first sample of a player only records their location.
+     */
+    private void sampleOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location lastSample = sampledLocationMap.get(player);
+            if (lastSample == null) {
+                sampledLocationMap.put(player, player.getLocation());
+                continue;
+            }
+            player.getLocation(sampleBuffer);
+            // The last sample is updated if a trigger teleports the player, so the move starts from a copy
+            copyLocation(lastSample, previousSampleBuffer);
+            handleMove(player, previousSampleBuffer, sampleBuffer, TriggerCause.MOVE);
+            // After a teleport, the next sample has to start from the destination instead
+            if (isSameLocation(lastSample, previousSampleBuffer)) {
+                copyLocation(sampleBuffer, lastSample);
+            }
+        }
+    }
+
+    private static boolean isSameLocation(Location first, Location second) {
+        return first.getWorld() == second.getWorld()
+                && first.getX() == second.getX()
+                && first.getY() == second.getY()
+                && first.getZ() == second.getZ();
+    }
+
+    private static void copyLocation(Location source, Location target) {
+        target.setWorld(source.getWorld());
+        target.setX(source.getX());
+        target.setY(source.getY());
+        target.setZ(source.getZ());
+    }
+
     /**
      * Handle trigger interactions.
      */
@@ -423,7 +685,7 @@ public class TriggerManager implements Listener {
         if (event.getHand() == EquipmentSlot.OFF_HAND) return;
         Block block = event.getClickedBlock();
         if (block == null) return;
-        Trigger trigger = getTriggerInteractionAtLocation(block.getLocation());
+        Trigger trigger = getTriggerInteractionAt(block);
         if (trigger == null) return;
         if (isButtonAndPowered(block)) return;
         Player player = event.getPlayer();
@@ -447,15 +709,21 @@ public class TriggerManager implements Listener {
         return block.getRelative(directional.getFacing()).isBlockIndirectlyPowered();
     }
 
-    private Trigger getTriggerInteractionAtLocation(Location location) {
-        SafeLocation safeLocation = SafeLocation.of(location);
-        return triggerInteractionMap.get(safeLocation);
+    /**
+     * Get the trigger of the interaction at the given block without allocating.
+     *
+     * @param block block to check
+     * @return trigger, or null if there is no interaction at the block
+     */
+    @Nullable
+    private Trigger getTriggerInteractionAt(Block block) {
+        return triggerInteractionIndex.get(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
     }
 
     @EventHandler(ignoreCancelled = true)
     private void onBreak(BlockBreakEvent event) {
-        Location location = event.getBlock().getLocation();
-        Trigger trigger = getTriggerInteractionAtLocation(location);
+        Block block = event.getBlock();
+        Trigger trigger = getTriggerInteractionAt(block);
         if (trigger == null) return;
         event.setCancelled(true);
         Player player = event.getPlayer();
@@ -470,17 +738,38 @@ public class TriggerManager implements Listener {
                             "&lShift + break &cto remove this interaction first.");
             return;
         }
-        SafeLocation safeLocation = SafeLocation.of(location);
+        SafeLocation safeLocation = SafeLocation.of(block.getLocation());
         unregisterTriggerInteraction(safeLocation);
         MessageType.WARN.send(player, "Removed trigger interaction: &l" + triggerName);
     }
 
+    @EventHandler
+    private void onWorldLoad(WorldLoadEvent event) {
+        triggerBoxIndex.loadWorld(event.getWorld());
+    }
+
+    @EventHandler
+    private void onWorldUnload(WorldUnloadEvent event) {
+        triggerBoxIndex.unloadWorld(event.getWorld());
+    }
+
+    @EventHandler
+    private void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        playerBoxesMap.remove(player);
+        sampledLocationMap.remove(player);
+    }
+
     @EventHandler(ignoreCancelled = true)
     private void onTeleport(PlayerTeleportEvent event) {
         Player player = event.getPlayer();
         Location from = event.getFrom();
         Location to = event.getTo();
         handleMove(player, from, to, TriggerCause.TELEPORT);
+        Location lastSample = sampledLocationMap.get(player);
+        if (lastSample != null && to != null) {
+            copyLocation(to, lastSample);
+        }
     }
 
     /**
@@ -488,6 +777,7 @@ public class TriggerManager implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     private void onMove(PlayerMoveEvent event) {
+        if (evaluationMode != EvaluationMode.MOVE_EVENT) return;
         Player player = event.getPlayer();
         Location to = event.getTo();
         Location from = event.getFrom();
@@ -496,61 +786,180 @@ public class TriggerManager implements Listener {
 
     private void handleMove(Player player, Location from, Location to, TriggerCause cause) {
         if (to == null) return;
-        BlockVector toBlockVector = to.toVector().toBlockVector();
-        BlockVector fromBlockVector = from.toVector().toBlockVector();
-        if (toBlockVector.equals(fromBlockVector)) return;
+        if (isSameBlock(from, to)) return;
         if (selectionManager.isSelectingBox(player)) {
+            playerBoxesMap.remove(player);
             MessageType.WARN.sendActionbarSilently(player, "You are selecting a trigger box");
             return;
         }
         if (hasBypass(player)) {
+            playerBoxesMap.remove(player);
             MessageType.WARN.sendActionbarSilently(player,
                     "You have &nbypass mode&e enabled. Do &6&l/... trigger bypass &eto disable.");
             return;
         }
-        TriggerBox enteredBox = findEnteredBox(triggerBoxes, to);
-        TriggerBox exitedBox = findExitedBox(triggerBoxes, from);
-        handleTriggerBoxes(player, enteredBox, exitedBox, from, to, cause);
+        Set<TriggerBox> previousBoxes = playerBoxesMap.get(player);
+        if (previousBoxes == null) {
+            // Player isn't tracked yet, the boxes at the previous location are the starting point
+            previousBoxes = findBoxesAt(from);
+        }
+        Set<TriggerBox> currentBoxes = findBoxesAt(to);
+        playerBoxesMap.put(player, currentBoxes);
+        handleTriggerBoxes(player, previousBoxes, currentBoxes, cause);
+        if (cause == TriggerCause.MOVE) {
+            handleSweptTriggerBoxes(player, from, to, previousBoxes, currentBoxes);
+        }
+    }
+
+    /**
+     * Enter and exit the triggers of the boxes the player moved through without ending up inside.
+     * Only checks triggers with swept detection that the player wasn't and isn't inside of.
+     *
+     * @param player        player that moved
+     * @param from          start of the move
+     * @param to            end of the move
+     * @param previousBoxes trigger boxes the player was inside of
+     * @param currentBoxes  trigger boxes the player is inside of now
+     */
+    private void handleSweptTriggerBoxes(Player player, Location from, Location to,
+                                         Set<TriggerBox> previousBoxes, Set<TriggerBox> currentBoxes) {
+        if (!sweptDetection && sweptTriggerCount == 0) return;
+        World world = to.getWorld();
+        if (world == null || world != from.getWorld()) return;
+        double fromX = from.getX();
+        double fromY = from.getY();
+        double fromZ = from.getZ();
+        double toX = to.getX();
+        double toY = to.getY();
+        double toZ = to.getZ();
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+        if (dx * dx + dy * dy + dz * dz > MAX_SWEEP_DISTANCE * MAX_SWEEP_DISTANCE) return;
+        Set<TriggerBox> candidates = sweepCandidates;
+        Map<Trigger, TriggerBox> crossedBoxes = sweepCrossedBoxes;
+        candidates.clear();
+        crossedBoxes.clear();
+        triggerBoxIndex.collectCandidates(world,
+                Math.min(from.getBlockX(), to.getBlockX()), Math.min(from.getBlockZ(), to.getBlockZ()),
+                Math.max(from.getBlockX(), to.getBlockX()), Math.max(from.getBlockZ(), to.getBlockZ()),
+                candidates);
+        // Collect first, the triggers might move the player and modify the boxes
+        for (TriggerBox box : candidates) {
+            Trigger trigger = box.getTrigger();
+            if (!sweptDetection && !trigger.usesSweptDetection()) continue;
+            if (crossedBoxes.containsKey(trigger)) continue;
+            if (containsTrigger(previousBoxes, trigger) || containsTrigger(currentBoxes, trigger)) continue;
+            if (!box.intersectsSegment(fromX, fromY, fromZ, toX, toY, toZ)) continue;
+            crossedBoxes.put(trigger, box);
+        }
+        candidates.clear();
+        if (crossedBoxes.isEmpty()) return;
+        // Copied, since the triggers might cause another swept check that reuses the collections
+        List<TriggerBox> crossed = new ArrayList<>(crossedBoxes.values());
+        crossedBoxes.clear();
+        crossed.forEach(box -> {
+            enterAndLogTriggerBox(player, box);
+            exitAndLogTriggerBox(player, box, TriggerCause.MOVE);
+        });
+    }
+
+    /**
+     * Check if both locations are in the same block of the same world.
+     * Compares the floored coordinates directly, so no objects are allocated.
+     *
+     * @param from first location
+     * @param to   second location
+     * @return true if both locations are in the same block
+     */
+    private static boolean isSameBlock(Location from, Location to) {
+        return from.getBlockX() == to.getBlockX()
+                && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ()
+                && from.getWorld() == to.getWorld();
     }
 
-    private TriggerBox findEnteredBox(Collection<TriggerBox> triggerBoxes, Location to) {
-        for (TriggerBox box : triggerBoxes) {
-            if (box.isInside(to)) {
-                return box;
+    /**
+     * Find all trigger boxes at the given location, sorted by z-coordinate.
+     * Only checks the boxes in the chunk of the location.
+     *
+     * @param location location to check
+     * @return trigger boxes at the location
+     */
+    private Set<TriggerBox> findBoxesAt(Location location) {
+        World world = location.getWorld();
+        if (world == null) return new LinkedHashSet<>();
+        int blockX = location.getBlockX();
+        int blockY = location.getBlockY();
+        int blockZ = location.getBlockZ();
+        Set<TriggerBox> boxes = new LinkedHashSet<>();
+        for (TriggerBox box : triggerBoxIndex.getCandidates(world, blockX, blockZ)) {
+            if (box.contains(blockX, blockY, blockZ)) {
+                boxes.add(box);
             }
         }
-        return null;
+        return boxes;
     }
 
-    private TriggerBox findExitedBox(Collection<TriggerBox> triggerBoxes, Location from) {
-        for (TriggerBox box : triggerBoxes) {
-            if (box.isInside(from)) {
-                return box;
+    /**
+     * Handle entering/exiting the trigger boxes.
+     * A trigger is only exited if the player isn't inside any of its boxes anymore,
+     * and only entered if the player wasn't inside any of its boxes before.
+     *
+     * @param player        player entering/exiting the trigger boxes
+     * @param previousBoxes trigger boxes the player was inside of
+     * @param currentBoxes  trigger boxes the player is inside of now
+     * @param cause         cause of the movement
+     */
+    private void handleTriggerBoxes(Player player, Set<TriggerBox> previousBoxes, Set<TriggerBox> currentBoxes,
+                                    TriggerCause cause) {
+        // Collect first, the triggers might unregister boxes and modify the sets
+        List<TriggerBox> exitedBoxes = null;
+        for (TriggerBox box : previousBoxes) {
+            if (!isFirstBoxOfTrigger(previousBoxes, box)) continue;
+            if (containsTrigger(currentBoxes, box.getTrigger())) continue;
+            if (exitedBoxes == null) exitedBoxes = new ArrayList<>();
+            exitedBoxes.add(box);
+        }
+        List<TriggerBox> enteredBoxes = null;
+        if (cause != TriggerCause.TELEPORT) {
+            for (TriggerBox box : currentBoxes) {
+                if (!isFirstBoxOfTrigger(currentBoxes, box)) continue;
+                if (containsTrigger(previousBoxes, box.getTrigger())) continue;
+                if (enteredBoxes == null) enteredBoxes = new ArrayList<>();
+                enteredBoxes.add(box);
             }
         }
-        return null;
+        if (exitedBoxes != null) {
+            exitedBoxes.forEach(box -> exitAndLogTriggerBox(player, box, cause));
+        }
+        if (enteredBoxes != null) {
+            enteredBoxes.forEach(box -> enterAndLogTriggerBox(player, box));
+        }
     }
 
     /**
-     * Handle entering/exiting the trigger boxes. Will do nothing if the entered and exited triggers are the same.
+     * Check if the given box is the first box of its trigger in the given boxes,
+     * so every trigger is only entered/exited once even if the player is inside multiple of its boxes.
      *
-     * @param player     player entering/exiting the trigger box
-     * @param enteredBox trigger box the player entered
-     * @param exitedBox  trigger box the player exited
+     * @param boxes boxes to check
+     * @param box   box to check
+     * @return true if no box before the given box has the same trigger
      */
-    private void handleTriggerBoxes(Player player,
-                                    @Nullable TriggerBox enteredBox, @Nullable TriggerBox exitedBox,
-                                    Location from, Location to, TriggerCause cause) {
-        Trigger enteredTrigger = enteredBox != null ? enteredBox.getTrigger() : null;
-        Trigger exitedTrigger = exitedBox != null ? exitedBox.getTrigger() : null;
-        if (enteredTrigger == exitedTrigger) return;
-        if (exitedBox != null && !isInTrigger(to, exitedTrigger)) {
-            exitAndLogTriggerBox(player, exitedBox, cause);
+    private static boolean isFirstBoxOfTrigger(Set<TriggerBox> boxes, TriggerBox box) {
+        Trigger trigger = box.getTrigger();
+        for (TriggerBox other : boxes) {
+            if (other == box) return true;
+            if (other.getTrigger().equals(trigger)) return false;
         }
-        if (cause == TriggerCause.TELEPORT) return;
-        if (enteredBox != null && !isInTrigger(from, enteredTrigger)) {
-            enterAndLogTriggerBox(player, enteredBox);
+        return true;
+    }
+
+    private static boolean containsTrigger(Set<TriggerBox> boxes, Trigger trigger) {
+        for (TriggerBox box : boxes) {
+            if (box.getTrigger().equals(trigger)) return true;
         }
+        return false;
     }
 
     private void enterAndLogTriggerBox(Player player, TriggerBox box) {
@@ -573,85 +982,121 @@ public class TriggerManager implements Listener {
     }
 
     /**
-     * Try to load the trigger boxes/interactions that have the given trigger.
+     * Try to load the trigger boxes/interactions that have the given trigger
+     * from the data read when the manager was created.
      *
      * @param trigger trigger to load the boxes/interactions for
      */
     private void tryLoad(Trigger trigger) {
-        JsonObject root = jsonDataManager.getRoot();
-        String triggerName = trigger.getName();
-        if (!root.has(triggerName)) return;
+        JsonElement data = unregisteredTriggerData.remove(trigger.getName());
+        if (data == null) return;
         clearTriggerBoxes(trigger);
         clearTriggerInteractions(trigger);
+        try {
+            readTrigger(data.getAsJsonObject(), trigger);
+        } catch (IllegalStateException | ClassCastException | UnsupportedOperationException exception) {
+            ClickEventLib.LOGGER.severe("Trigger '" + trigger.getName() + "' couldn't be loaded: " + exception.getMessage());
+        }
+    }
 
-        JsonObject triggerNode = root.getAsJsonObject(triggerName);
-        JsonArray boxes = triggerNode.getAsJsonArray("boxes");
-        // Load boxes
-        for (JsonElement boxesElement : boxes) {
-            JsonObject box = boxesElement.getAsJsonObject();
-            int id = getNextId(trigger);
-            TriggerBox triggerBox = fromJson(box, id, trigger);
-            addTriggerBox(triggerBox);
+    private void readTrigger(JsonObject json, Trigger trigger) {
+        if (json.has("boxes")) {
+            for (JsonElement element : json.getAsJsonArray("boxes")) {
+                int id = getNextId(trigger);
+                addTriggerBox(readTriggerBox(element.getAsJsonObject(), id, trigger));
+            }
+            sortTriggerBoxes();
         }
-        sortTriggerBoxes();
-        // Load interactions
-        JsonArray interactions = triggerNode.getAsJsonArray("interactions");
-        for (JsonElement interaction : interactions) {
-            SafeLocation location = JSONDataManager.GSON.fromJson(interaction, SafeLocation.class);
-            addTriggerInteraction(location, trigger);
+        if (json.has("interactions")) {
+            for (JsonElement element : json.getAsJsonArray("interactions")) {
+                SafeLocation location = JSONDataManager.GSON.fromJson(element, SafeLocation.class);
+                addTriggerInteraction(location, trigger);
+            }
         }
     }
 
+    /**
+     * Mark the trigger boxes/interactions as changed.
+     * Saves immediately unless saving is deferred.
+     */
+    private void markChanged() {
+        if (deferredSaving) {
+            dirty = true;
+            return;
+        }
+        save();
+    }
+
+    /**
+     * Save the trigger boxes to the data file if they changed since the last save.
+     */
+    public void saveIfChanged() {
+        if (!dirty) return;
+        save();
+    }
+
     /**
      * Save the trigger boxes to the data file.
      */
     public void save() {
-        JsonObject json = new JsonObject();
-        triggers.forEach(trigger -> {
-            JsonObject triggerNode = new JsonObject();
-            triggerNode.add("boxes", new JsonArray());
-            triggerNode.add("interactions", new JsonArray());
-            json.add(trigger.getName(), triggerNode);
-        });
-        triggerBoxes.forEach(box -> {
-            JsonObject boxNode = toJson(box);
-            String triggerName = box.getTrigger().getName();
-            JsonArray boxesArray = json.getAsJsonObject(triggerName).getAsJsonArray("boxes");
-            boxesArray.add(boxNode);
-        });
-        triggerInteractionMap.forEach((location, trigger) -> {
-            JsonElement locationNode = JSONDataManager.GSON.toJsonTree(location, SafeLocation.class);
-            String triggerName = trigger.getName();
-            JsonArray interactionsArray = json.getAsJsonObject(triggerName).getAsJsonArray("interactions");
-            interactionsArray.add(locationNode);
+        dirty = false;
+        // Boxes and locations are not modified, so a shallow snapshot can be written on the I/O thread
+        Map<String, List<TriggerBox>> boxesSnapshot = new LinkedHashMap<>();
+        Map<String, List<SafeLocation>> interactionsSnapshot = new HashMap<>();
+        triggers.forEach(trigger -> boxesSnapshot.put(trigger.getName(), new ArrayList<>()));
+        triggerBoxes.forEach(box -> boxesSnapshot.get(box.getTrigger().getName()).add(box));
+        triggerInteractionMap.forEach((location, trigger) -> interactionsSnapshot
+                .computeIfAbsent(trigger.getName(), k -> new ArrayList<>()).add(location));
+        // The data of unregistered triggers is never modified, so it can be written as is
+        Map<String, JsonElement> unregisteredSnapshot = new LinkedHashMap<>(unregisteredTriggerData);
+        jsonDataManager.saveStreamingAsync(writer -> {
+            writer.beginObject();
+            for (Map.Entry<String, JsonElement> entry : unregisteredSnapshot.entrySet()) {
+                writer.name(entry.getKey());
+                JSONDataManager.GSON.toJson(entry.getValue(), writer);
+            }
+            for (Map.Entry<String, List<TriggerBox>> entry : boxesSnapshot.entrySet()) {
+                writer.name(entry.getKey()).beginObject();
+                writer.name("boxes").beginArray();
+                for (TriggerBox box : entry.getValue()) {
+                    writeTriggerBox(writer, box);
+                }
+                writer.endArray();
+                writer.name("interactions").beginArray();
+                for (SafeLocation location : interactionsSnapshot.getOrDefault(entry.getKey(), List.of())) {
+                    JSONDataManager.GSON.toJson(location, SafeLocation.class, writer);
+                }
+                writer.endArray();
+                writer.endObject();
+            }
+            writer.endObject();
         });
-        jsonDataManager.save(json);
     }
 
-    private TriggerBox fromJson(JsonObject json, int id, Trigger trigger) {
+    private TriggerBox readTriggerBox(JsonObject json, int id, Trigger trigger) {
+        if (!json.has("world")) {
+            throw new IllegalStateException("Trigger box of '" + trigger.getName() + "' has no world");
+        }
         String worldName = json.get("world").getAsString();
-        int z = json.get("z").getAsInt();
-        int minX = json.get("minX").getAsInt();
-        int minY = json.get("minY").getAsInt();
-        int minZ = json.get("minZ").getAsInt();
-        int maxX = json.get("maxX").getAsInt();
-        int maxY = json.get("maxY").getAsInt();
-        int maxZ = json.get("maxZ").getAsInt();
-        return new TriggerBox(id, worldName, trigger, z, minX, minY, minZ, maxX, maxY, maxZ);
-    }
-
-    private JsonObject toJson(TriggerBox triggerBox) {
-        JsonObject json = new JsonObject();
-        json.addProperty("world", triggerBox.getWorldName());
-        json.addProperty("z", triggerBox.getZ());
-        BlockVector minPos = triggerBox.getMinPos();
-        BlockVector maxPos = triggerBox.getMaxPos();
-        json.addProperty("minX", minPos.getBlockX());
-        json.addProperty("minY", minPos.getBlockY());
-        json.addProperty("minZ", minPos.getBlockZ());
-        json.addProperty("maxX", maxPos.getBlockX());
-        json.addProperty("maxY", maxPos.getBlockY());
-        json.addProperty("maxZ", maxPos.getBlockZ());
-        return json;
+        return new TriggerBox(id, worldName, trigger, getInt(json, "z"),
+                getInt(json, "minX"), getInt(json, "minY"), getInt(json, "minZ"),
+                getInt(json, "maxX"), getInt(json, "maxY"), getInt(json, "maxZ"));
+    }
+
+    private static int getInt(JsonObject json, String name) {
+        return json.has(name) ? json.get(name).getAsInt() : 0;
+    }
+
+    private void writeTriggerBox(JsonWriter writer, TriggerBox triggerBox) throws IOException {
+        writer.beginObject();
+        writer.name("world").value(triggerBox.getWorldName());
+        writer.name("z").value(triggerBox.getZ());
+        writer.name("minX").value(triggerBox.getMinX());
+        writer.name("minY").value(triggerBox.getMinY());
+        writer.name("minZ").value(triggerBox.getMinZ());
+        writer.name("maxX").value(triggerBox.getMaxX());
+        writer.name("maxY").value(triggerBox.getMaxY());
+        writer.name("maxZ").value(triggerBox.getMaxZ());
+        writer.endObject();
     }
 }
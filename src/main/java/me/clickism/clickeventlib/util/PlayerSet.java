@@ -132,7 +132,7 @@ public class PlayerSet implements AutoSaved {
         JsonArray array = new JsonArray();
         players.forEach(uuid -> array.add(uuid.toString()));
         json.add("players", array);
-        dataManager.save(json);
+        dataManager.saveAsync(json);
     }
 
     private void load() {